@@ -0,0 +1,66 @@
+package com.sovdee.shapes.benchmarks;
+
+import com.sovdee.shapes.shapes.Arc;
+import com.sovdee.shapes.shapes.BezierCurve;
+import com.sovdee.shapes.shapes.Circle;
+import com.sovdee.shapes.shapes.Cuboid;
+import com.sovdee.shapes.shapes.Ellipse;
+import com.sovdee.shapes.shapes.Ellipsoid;
+import com.sovdee.shapes.shapes.EllipticalArc;
+import com.sovdee.shapes.shapes.Heart;
+import com.sovdee.shapes.shapes.Helix;
+import com.sovdee.shapes.shapes.IrregularPolygon;
+import com.sovdee.shapes.shapes.Line;
+import com.sovdee.shapes.shapes.Morph;
+import com.sovdee.shapes.shapes.Rectangle;
+import com.sovdee.shapes.shapes.RegularPolygon;
+import com.sovdee.shapes.shapes.RegularPolyhedron;
+import com.sovdee.shapes.shapes.Shape;
+import com.sovdee.shapes.shapes.Sphere;
+import com.sovdee.shapes.shapes.SphericalCap;
+import com.sovdee.shapes.shapes.Star;
+import org.joml.Vector3d;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * One instance of every shape in the library, sized to roughly fit a 10 block cube.
+ */
+public enum BenchmarkShape {
+    ARC(() -> new Arc(5, Math.PI)),
+    CYLINDRICAL_ARC(() -> new Arc(5, 5, Math.PI)),
+    BEZIER_CURVE(() -> new BezierCurve(List.of(
+            new Vector3d(-5, 0, 0), new Vector3d(-2, 5, 3), new Vector3d(2, -5, -3), new Vector3d(5, 0, 0)))),
+    CIRCLE(() -> new Circle(5)),
+    CYLINDER(() -> new Circle(5, 5)),
+    CUBOID(() -> new Cuboid(10, 10, 10)),
+    ELLIPSE(() -> new Ellipse(5, 3)),
+    ELLIPTICAL_CYLINDER(() -> new Ellipse(5, 3, 5)),
+    ELLIPSOID(() -> new Ellipsoid(5, 3, 4)),
+    ELLIPTICAL_ARC(() -> new EllipticalArc(5, 3, Math.PI)),
+    HEART(() -> new Heart(5, 5, 3)),
+    HELIX(() -> new Helix(5, 10, 1)),
+    IRREGULAR_POLYGON(() -> new IrregularPolygon(List.of(
+            new Vector3d(-5, 0, -5), new Vector3d(5, 0, -3), new Vector3d(3, 0, 5), new Vector3d(-4, 0, 2)), 5)),
+    LINE(() -> new Line(new Vector3d(-5, -5, -5), new Vector3d(5, 5, 5))),
+    MORPH(() -> new Morph(new Sphere(3), new Sphere(5), 0.5)),
+    RECTANGLE(() -> new Rectangle(10, 10, Rectangle.Plane.XZ)),
+    REGULAR_POLYGON(() -> new RegularPolygon(6, 5)),
+    PRISM(() -> new RegularPolygon(6, 5, 5)),
+    TETRAHEDRON(() -> new RegularPolyhedron(5, 4)),
+    ICOSAHEDRON(() -> new RegularPolyhedron(5, 20)),
+    SPHERE(() -> new Sphere(5)),
+    SPHERICAL_CAP(() -> new SphericalCap(5, Math.PI / 3)),
+    STAR(() -> new Star(2, 5, Math.PI / 5));
+
+    private final Supplier<Shape> factory;
+
+    BenchmarkShape(Supplier<Shape> factory) {
+        this.factory = factory;
+    }
+
+    Shape create() {
+        return factory.get();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sovdee.shapes.benchmarks;
+
+import com.sovdee.shapes.sampling.DefaultPointSampler;
+import com.sovdee.shapes.sampling.GeometryCache;
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.SamplingStyle;
+import com.sovdee.shapes.shapes.Shape;
+import org.joml.Quaterniond;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DefaultPointSampler} for every shape, sampling style and a range of densities.
+ * <ul>
+ *     <li>{@link #coldGeneration()}: the shape is sampled from scratch on every call, with the shared geometry cache disabled.</li>
+ *     <li>{@link #cacheHit()}: nothing changes between calls, so the cached points are returned.</li>
+ *     <li>{@link #rotationOnly()}: the orientation changes on every call, so the cached geometry is re-transformed.</li>
+ * </ul>
+ * Run with the gc profiler (enabled in the build script) to see the allocation rate of each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SamplerBenchmark {
+
+    @Param
+    public BenchmarkShape shape;
+
+    @Param
+    public SamplingStyle style;
+
+    @Param({"0.1", "0.25", "0.5"})
+    public double density;
+
+    private Shape instance;
+    private DefaultPointSampler sampler;
+    private final Quaterniond orientation = new Quaterniond();
+    private long previousMaxPoints;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        instance = shape.create();
+        sampler = new DefaultPointSampler();
+        sampler.setStyle(style);
+        sampler.setDensity(density);
+        instance.setPointSampler(sampler);
+        // prime the sampler's own cache for the cache hit and rotation benchmarks
+        sampler.getPointBuffer(instance, orientation);
+        // keep cold generation cold: nothing is stored in the shared cache
+        previousMaxPoints = GeometryCache.shared().getMaxPoints();
+        GeometryCache.shared().setMaxPoints(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        GeometryCache.shared().setMaxPoints(previousMaxPoints);
+    }
+
+    @Benchmark
+    public PointBuffer coldGeneration() {
+        sampler.markDirty();
+        return sampler.getPointBuffer(instance, orientation);
+    }
+
+    @Benchmark
+    public PointBuffer cacheHit() {
+        return sampler.getPointBuffer(instance, orientation);
+    }
+
+    @Benchmark
+    public PointBuffer rotationOnly() {
+        orientation.rotateY(0.01);
+        return sampler.getPointBuffer(instance, orientation);
+    }
+}
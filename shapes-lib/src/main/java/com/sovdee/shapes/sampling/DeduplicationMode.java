@@ -0,0 +1,25 @@
+package com.sovdee.shapes.sampling;
+
+/**
+ * Determines how a {@link PointSampler} removes duplicate points after generation.
+ */
+public enum DeduplicationMode {
+    /**
+     * Keeps every generated point. The fastest mode, but points shared by edges or faces are drawn more than once.
+     */
+    NONE,
+    /**
+     * Removes points whose coordinates are exactly equal.
+     */
+    EXACT,
+    /**
+     * Snaps coordinates to a grid of the sampler's deduplication epsilon and removes points that land in the same cell,
+     * merging near-duplicates that exact comparison misses.
+     */
+    QUANTIZED;
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
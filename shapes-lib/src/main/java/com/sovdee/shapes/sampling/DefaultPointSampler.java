@@ -1,70 +1,155 @@
 package com.sovdee.shapes.sampling;
 
+import com.sovdee.shapes.shapes.PartitionedShape;
 import com.sovdee.shapes.shapes.Shape;
 import org.joml.Quaterniond;
 import org.joml.Vector3d;
 
+import java.io.Serial;
 import java.util.Comparator;
-import java.util.LinkedHashSet;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Default implementation of {@link PointSampler} with hash-based caching.
+ * Default implementation of {@link PointSampler}.
+ * <p>
+ * Caches in two layers: local-space geometry, keyed by the shape's geometry version, and the
+ * transformed points, keyed by its transform version and the orientation drawn with. Shapes bump
+ * their versions from their setters, so a cache hit is a few field comparisons. Rotating, scaling or
+ * moving a shape only re-applies the transform to the cached geometry. Geometry of static shapes
+ * is shared between samplers through {@link GeometryCache#shared()}. Each level of detail has its own cache,
+ * created the first time it is requested. Dynamic shapes are cached until a supplied point moves, or resampled on
+ * every call if they can't tell, see {@link Shape#resamplesEveryDraw()}.
+ * <p>
+ * Each cache is an immutable snapshot that is replaced as a whole, so a sampler may be asked for points from
+ * several threads at once. Each caller sees a complete, consistent cache, and a racing update at worst samples
+ * the same points twice. Shapes themselves are not thread-safe, so a shape must not be modified while it is drawn.
  */
 public class DefaultPointSampler implements PointSampler {
 
-    private SamplingStyle style = SamplingStyle.OUTLINE;
-    private double density = 0.25;
-    private Comparator<Vector3d> ordering;
+    private volatile SamplingStyle style = SamplingStyle.OUTLINE;
+    private volatile double density = 0.25;
+    private volatile Comparator<Vector3d> ordering;
+    private volatile DeduplicationMode deduplicationMode = DeduplicationMode.EXACT;
+    private volatile double deduplicationEpsilon = Shape.EPSILON;
+    private volatile boolean parallel = false;
+    private volatile boolean levelOfDetail = false;
     private final UUID uuid;
-    private DrawContext drawContext;
+    private volatile DrawContext drawContext;
 
-    // Cache
-    private Set<Vector3d> cachedPoints = new LinkedHashSet<>();
-    private CacheState lastState;
-    private boolean needsUpdate = false;
+    // Incremented whenever a setting that affects the generated points changes
+    private volatile long settingsVersion = 1;
+    private AtomicReferenceArray<CacheLevel> levels = new AtomicReferenceArray<>(LEVELS_OF_DETAIL);
 
     public DefaultPointSampler() {
         this.uuid = UUID.randomUUID();
-        this.lastState = new CacheState(style, 0, 1.0, 0, density, 0);
     }
 
     @Override
-    public Set<Vector3d> getPoints(Shape shape) {
-        return getPoints(shape, shape.getOrientation());
+    public PointBuffer getPointBuffer(Shape shape) {
+        CacheLevel cache = levels.get(0);
+        // read once per call, since dynamic shapes read their suppliers to work out their version
+        long geometryVersion = shape.getVersion();
+        // the shape's orientation is covered by its transform version, so a hit needs no copies
+        if (cache != null && cache.ownOrientation && !shape.resamplesEveryDraw() && cache.settingsVersion == settingsVersion
+                && geometryVersion == cache.geometryVersion && shape.getTransformVersion() == cache.transformVersion)
+            return cache.cachedPoints;
+        return getPointBuffer(shape, geometryVersion, shape.getOrientation(), 0, true);
     }
 
     @Override
-    public Set<Vector3d> getPoints(Shape shape, Quaterniond orientation) {
-        CacheState state = new CacheState(style, orientation.hashCode(),
-                shape.getScale(), shape.getOffset().hashCode(), density, shape.getVersion());
-        if (shape.isDynamic() || needsUpdate || !state.equals(lastState) || cachedPoints.isEmpty()) {
-            Set<Vector3d> points = (ordering != null) ? new TreeSet<>(ordering) : new LinkedHashSet<>();
+    public PointBuffer getPointBuffer(Shape shape, Quaterniond orientation) {
+        return getPointBuffer(shape, orientation, 0);
+    }
 
-            shape.beforeSampling(density);
-            switch (style) {
-                case OUTLINE -> shape.generateOutline(points, density);
-                case SURFACE -> shape.generateSurface(points, density);
-                case FILL -> shape.generateFilled(points, density);
-            }
-            shape.afterSampling(points);
+    @Override
+    public PointBuffer getPointBuffer(Shape shape, Quaterniond orientation, int level) {
+        return getPointBuffer(shape, shape.getVersion(), orientation, Math.clamp(level, 0, LEVELS_OF_DETAIL - 1), false);
+    }
 
-            for (Vector3d point : points) {
-                orientation.transform(point);
-                point.mul(shape.getScale());
-                point.add(shape.getOffset());
+    private PointBuffer getPointBuffer(Shape shape, long geometryVersion, Quaterniond orientation, int level, boolean ownOrientation) {
+        CacheLevel cache = levels.get(level);
+        // read the versions before sampling, so a change made while sampling leaves the cache stale rather than wrong
+        long settingsVersion = this.settingsVersion;
+        long transformVersion = shape.getTransformVersion();
+
+        PointBuffer localPoints;
+        boolean geometryChanged = cache == null || shape.resamplesEveryDraw() || cache.settingsVersion != settingsVersion
+                || cache.geometryVersion != geometryVersion;
+        if (geometryChanged) {
+            localPoints = sampleGeometry(shape, density * (1 << level));
+        } else {
+            localPoints = cache.localPoints;
+            if (transformVersion == cache.transformVersion && orientation.x == cache.orientationX
+                    && orientation.y == cache.orientationY && orientation.z == cache.orientationZ
+                    && orientation.w == cache.orientationW) {
+                if (cache.ownOrientation != ownOrientation)
+                    levels.compareAndSet(level, cache, cache.withOwnOrientation(ownOrientation));
+                return cache.cachedPoints;
             }
-            cachedPoints = points;
-            lastState = state;
-            needsUpdate = false;
         }
+
+        PointBuffer cachedPoints = localPoints.transformed(orientation, shape.getScale(), shape.getOffset());
+        levels.set(level, new CacheLevel(localPoints, geometryVersion, settingsVersion, cachedPoints, transformVersion,
+                orientation.x, orientation.y, orientation.z, orientation.w, ownOrientation));
         return cachedPoints;
     }
 
+    /**
+     * Samples the local-space points of a shape, taking them from the shared cache when possible.
+     */
+    private PointBuffer sampleGeometry(Shape shape, double density) {
+        // identical static shapes share their geometry through the global cache
+        Object shapeKey = shape.isDynamic() ? null : shape.getGeometryKey();
+        GeometryKey key = shapeKey == null ? null : new GeometryKey(shapeKey, style, density, ordering,
+                deduplicationMode, deduplicationEpsilon);
+        PointBuffer points = key == null ? null : GeometryCache.shared().get(key);
+        if (points == null) {
+            points = generate(shape, density);
+            if (key != null)
+                GeometryCache.shared().put(key, points);
+        }
+        return points;
+    }
+
+    private PointBuffer generate(Shape shape, double density) {
+        PointBuffer points = new PointBuffer();
+        shape.beforeSampling(density);
+        generate(shape, points, density);
+        shape.afterSampling(points);
+        switch (deduplicationMode) {
+            case NONE -> {}
+            case EXACT -> points.deduplicate();
+            case QUANTIZED -> points.deduplicate(deduplicationEpsilon);
+        }
+        if (ordering != null)
+            points.sort(ordering);
+        return points;
+    }
+
+    private void generate(Shape shape, PointSink points, double density) {
+        if (parallel && shape instanceof PartitionedShape partitioned) {
+            int count = partitioned.getPartitionCount(style, density);
+            if (count > 1) {
+                PointBuffer[] partitions = new PointBuffer[count];
+                ForkJoinPool.commonPool().invoke(new PartitionTask(partitioned, style, density, partitions, 0, count));
+                // concatenating in index order keeps the output identical to sequential generation
+                for (PointBuffer partition : partitions)
+                    partition.emit(points);
+                return;
+            }
+        }
+        switch (style) {
+            case OUTLINE -> shape.generateOutline(points, density);
+            case SURFACE -> shape.generateSurface(points, density);
+            case FILL -> shape.generateFilled(points, density);
+        }
+    }
+
     public void markDirty() {
-        needsUpdate = true;
+        settingsVersion++;
     }
 
     @Override
@@ -73,7 +158,7 @@ public class DefaultPointSampler implements PointSampler {
     @Override
     public void setStyle(SamplingStyle style) {
         this.style = style;
-        this.needsUpdate = true;
+        this.settingsVersion++;
     }
 
     @Override
@@ -82,7 +167,7 @@ public class DefaultPointSampler implements PointSampler {
     @Override
     public void setDensity(double density) {
         this.density = Math.max(density, Shape.EPSILON);
-        this.needsUpdate = true;
+        this.settingsVersion++;
     }
 
     @Override
@@ -91,12 +176,45 @@ public class DefaultPointSampler implements PointSampler {
     @Override
     public void setOrdering(Comparator<Vector3d> ordering) {
         this.ordering = ordering;
-        this.needsUpdate = true;
+        this.settingsVersion++;
+    }
+
+    @Override
+    public DeduplicationMode getDeduplicationMode() { return deduplicationMode; }
+
+    @Override
+    public void setDeduplicationMode(DeduplicationMode mode) {
+        this.deduplicationMode = mode;
+        this.settingsVersion++;
+    }
+
+    @Override
+    public double getDeduplicationEpsilon() { return deduplicationEpsilon; }
+
+    @Override
+    public void setDeduplicationEpsilon(double epsilon) {
+        this.deduplicationEpsilon = Math.max(epsilon, Shape.EPSILON * Shape.EPSILON);
+        this.settingsVersion++;
     }
 
+    @Override
+    public boolean isParallel() { return parallel; }
+
+    @Override
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+
+    @Override
+    public boolean isLevelOfDetail() { return levelOfDetail; }
+
+    @Override
+    public void setLevelOfDetail(boolean levelOfDetail) { this.levelOfDetail = levelOfDetail; }
+
     @Override
     public UUID getUUID() { return uuid; }
 
+    @Override
+    public long getSettingsVersion() { return settingsVersion; }
+
     @Override
     public DrawContext getDrawContext() { return drawContext; }
 
@@ -108,8 +226,7 @@ public class DefaultPointSampler implements PointSampler {
         try {
             DefaultPointSampler copy = (DefaultPointSampler) super.clone();
             // Don't share the cache
-            copy.cachedPoints = new LinkedHashSet<>();
-            copy.needsUpdate = true;
+            copy.levels = new AtomicReferenceArray<>(LEVELS_OF_DETAIL);
             if (drawContext != null)
                 copy.drawContext = drawContext.copy();
             return copy;
@@ -118,6 +235,60 @@ public class DefaultPointSampler implements PointSampler {
         }
     }
 
-    private record CacheState(SamplingStyle style, int orientationHash, double scale,
-                               int offsetHash, double density, long shapeVersion) {}
+    /**
+     * The cached points for one level of detail. Never modified, only replaced.
+     * Geometry layer: local-space points, regenerated when the shape or sampling settings change.
+     * Transform layer: the local points with orientation, scale and offset applied.
+     */
+    private record CacheLevel(PointBuffer localPoints, long geometryVersion, long settingsVersion,
+                              PointBuffer cachedPoints, long transformVersion,
+                              double orientationX, double orientationY, double orientationZ, double orientationW,
+                              boolean ownOrientation) {
+
+        CacheLevel withOwnOrientation(boolean ownOrientation) {
+            return new CacheLevel(localPoints, geometryVersion, settingsVersion, cachedPoints, transformVersion,
+                    orientationX, orientationY, orientationZ, orientationW, ownOrientation);
+        }
+    }
+
+    /**
+     * Generates a range of partitions into their own buffers, splitting the range in half until one partition remains.
+     */
+    private static final class PartitionTask extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized
+        private final transient PartitionedShape shape;
+        private final SamplingStyle style;
+        private final double density;
+        private final transient PointBuffer[] partitions;
+        private final int from, to;
+
+        PartitionTask(PartitionedShape shape, SamplingStyle style, double density, PointBuffer[] partitions, int from, int to) {
+            this.shape = shape;
+            this.style = style;
+            this.density = density;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                PointBuffer partition = new PointBuffer();
+                shape.generatePartition(style, from, partition, density);
+                partitions[from] = partition;
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PartitionTask(shape, style, density, partitions, from, middle),
+                    new PartitionTask(shape, style, density, partitions, middle, to));
+        }
+    }
+
+    private record GeometryKey(Object shapeKey, SamplingStyle style, double density, Comparator<Vector3d> ordering,
+                               DeduplicationMode deduplicationMode, double deduplicationEpsilon) {}
 }
@@ -0,0 +1,86 @@
+package com.sovdee.shapes.sampling;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A process-wide, bounded cache of local-space geometry, shared between samplers so that identical
+ * shapes are only sampled once.
+ * <p>
+ * Entries are evicted least-recently-used first once the total number of cached points exceeds
+ * the limit. Each point costs 24 bytes, so the default limit of 1,000,000 points is roughly 24 MB.
+ * Buffers are trimmed to their size when cached, so that limit covers their spare capacity too.
+ * Cached buffers are shared and must never be modified.
+ */
+public final class GeometryCache {
+
+    public static final long DEFAULT_MAX_POINTS = 1_000_000;
+
+    private static final GeometryCache SHARED = new GeometryCache(DEFAULT_MAX_POINTS);
+
+    private final LinkedHashMap<Object, PointBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxPoints;
+    private long totalPoints;
+
+    public GeometryCache(long maxPoints) {
+        this.maxPoints = Math.max(maxPoints, 0);
+    }
+
+    /**
+     * @return the cache used by {@link DefaultPointSampler}
+     */
+    public static GeometryCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return the cached points for the given key, or null if absent
+     */
+    public synchronized PointBuffer get(Object key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches the given points, evicting older entries as needed.
+     * Buffers larger than the limit are not cached. Cached buffers are trimmed to their size first.
+     */
+    public synchronized void put(Object key, PointBuffer points) {
+        if (points.size() > maxPoints)
+            return;
+        points.trimToSize();
+        PointBuffer previous = entries.put(key, points);
+        if (previous != null)
+            totalPoints -= previous.size();
+        totalPoints += points.size();
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Object, PointBuffer>> iterator = entries.entrySet().iterator();
+        while (totalPoints > maxPoints && iterator.hasNext()) {
+            totalPoints -= iterator.next().getValue().size();
+            iterator.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalPoints = 0;
+    }
+
+    public synchronized long getMaxPoints() { return maxPoints; }
+
+    /**
+     * Sets the maximum total number of cached points, evicting entries if the cache is now over the limit.
+     * A limit of 0 disables caching.
+     */
+    public synchronized void setMaxPoints(long maxPoints) {
+        this.maxPoints = Math.max(maxPoints, 0);
+        evict();
+    }
+
+    public synchronized long getTotalPoints() { return totalPoints; }
+
+    public synchronized int size() { return entries.size(); }
+}
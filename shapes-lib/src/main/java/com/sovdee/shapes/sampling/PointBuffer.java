@@ -0,0 +1,278 @@
+package com.sovdee.shapes.sampling;
+
+import org.joml.Quaterniondc;
+import org.joml.Vector3d;
+import org.joml.Vector3dc;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A growable, ordered buffer of points stored as primitive coordinate arrays.
+ * Shapes generate into a buffer and {@link PointSampler}s cache them, so a sampled point
+ * costs three doubles rather than a heap {@link Vector3d} and a set entry.
+ */
+public class PointBuffer implements PointSink {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private double[] xs;
+    private double[] ys;
+    private double[] zs;
+    private int size;
+
+    public PointBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PointBuffer(int capacity) {
+        capacity = Math.max(capacity, 0);
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.zs = new double[capacity];
+    }
+
+    public PointBuffer(PointBuffer other) {
+        this.xs = Arrays.copyOf(other.xs, other.size);
+        this.ys = Arrays.copyOf(other.ys, other.size);
+        this.zs = Arrays.copyOf(other.zs, other.size);
+        this.size = other.size;
+    }
+
+    // --- Appending ---
+
+    public void add(double x, double y, double z) {
+        if (size == xs.length)
+            grow(size + 1);
+        xs[size] = x;
+        ys[size] = y;
+        zs[size] = z;
+        size++;
+    }
+
+    public void add(Vector3dc point) {
+        add(point.x(), point.y(), point.z());
+    }
+
+    @Override
+    public void accept(double x, double y, double z) {
+        add(x, y, z);
+    }
+
+    public void addAll(PointBuffer other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.xs, 0, xs, size, other.size);
+        System.arraycopy(other.ys, 0, ys, size, other.size);
+        System.arraycopy(other.zs, 0, zs, size, other.size);
+        size += other.size;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > xs.length)
+            grow(capacity);
+    }
+
+    /**
+     * Shrinks the backing arrays to the number of points, freeing the spare capacity left by growing.
+     */
+    public void trimToSize() {
+        if (xs.length == size)
+            return;
+        xs = Arrays.copyOf(xs, size);
+        ys = Arrays.copyOf(ys, size);
+        zs = Arrays.copyOf(zs, size);
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, xs.length + (xs.length >> 1)));
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+    }
+
+    // --- Access ---
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() { size = 0; }
+
+    public double getX(int index) { return xs[index]; }
+
+    public double getY(int index) { return ys[index]; }
+
+    public double getZ(int index) { return zs[index]; }
+
+    /**
+     * Copies the point at the given index into {@code dest}.
+     *
+     * @return {@code dest}
+     */
+    public Vector3d get(int index, Vector3d dest) {
+        return dest.set(xs[index], ys[index], zs[index]);
+    }
+
+    public void set(int index, double x, double y, double z) {
+        xs[index] = x;
+        ys[index] = y;
+        zs[index] = z;
+    }
+
+    // --- Bulk operations ---
+
+    /**
+     * Translates every point from {@code fromIndex} to the end of the buffer.
+     */
+    public void translate(int fromIndex, double x, double y, double z) {
+        for (int i = fromIndex; i < size; i++) {
+            xs[i] += x;
+            ys[i] += y;
+            zs[i] += z;
+        }
+    }
+
+    public void translate(double x, double y, double z) {
+        translate(0, x, y, z);
+    }
+
+    /**
+     * Rotates every point from {@code fromIndex} to the end of the buffer.
+     */
+    public void rotate(Quaterniondc rotation, int fromIndex) {
+        Vector3d scratch = new Vector3d();
+        for (int i = fromIndex; i < size; i++) {
+            rotation.transform(xs[i], ys[i], zs[i], scratch);
+            xs[i] = scratch.x;
+            ys[i] = scratch.y;
+            zs[i] = scratch.z;
+        }
+    }
+
+    /**
+     * Copies this buffer into a new one with every point rotated, scaled, then offset.
+     * This buffer is left unchanged.
+     */
+    public PointBuffer transformed(Quaterniondc orientation, double scale, Vector3dc offset) {
+        PointBuffer result = new PointBuffer(size);
+        Vector3d scratch = new Vector3d();
+        double ox = offset.x(), oy = offset.y(), oz = offset.z();
+        for (int i = 0; i < size; i++) {
+            orientation.transform(xs[i], ys[i], zs[i], scratch);
+            result.xs[i] = scratch.x * scale + ox;
+            result.ys[i] = scratch.y * scale + oy;
+            result.zs[i] = scratch.z * scale + oz;
+        }
+        result.size = size;
+        return result;
+    }
+
+    /**
+     * Removes points whose coordinates are identical to an earlier point, keeping the first occurrence.
+     * Coordinates are compared bitwise like {@link Vector3d#equals(Object)}, except that -0.0 equals 0.0.
+     */
+    public void deduplicate() {
+        if (size < 2)
+            return;
+        PointKeySet seen = new PointKeySet(size);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            // adding 0.0 folds -0.0 into 0.0
+            if (seen.add(Double.doubleToLongBits(xs[i] + 0.0), Double.doubleToLongBits(ys[i] + 0.0), Double.doubleToLongBits(zs[i] + 0.0)))
+                keep(i, kept++);
+        }
+        size = kept;
+    }
+
+    /**
+     * Removes points that fall into the same cell of a grid with the given spacing as an earlier point,
+     * keeping the first occurrence unchanged.
+     */
+    public void deduplicate(double epsilon) {
+        if (size < 2)
+            return;
+        PointKeySet seen = new PointKeySet(size);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (seen.add(Math.round(xs[i] / epsilon), Math.round(ys[i] / epsilon), Math.round(zs[i] / epsilon)))
+                keep(i, kept++);
+        }
+        size = kept;
+    }
+
+    private void keep(int from, int to) {
+        xs[to] = xs[from];
+        ys[to] = ys[from];
+        zs[to] = zs[from];
+    }
+
+    /**
+     * Stably sorts the points using the given comparator.
+     */
+    public void sort(Comparator<Vector3d> comparator) {
+        Vector3d[] points = new Vector3d[size];
+        for (int i = 0; i < size; i++)
+            points[i] = new Vector3d(xs[i], ys[i], zs[i]);
+        Arrays.sort(points, comparator);
+        for (int i = 0; i < size; i++)
+            set(i, points[i].x, points[i].y, points[i].z);
+    }
+
+    /**
+     * Passes every point to the given sink, in order.
+     */
+    public void emit(PointSink sink) {
+        if (sink instanceof PointBuffer buffer) {
+            buffer.addAll(this);
+            return;
+        }
+        for (int i = 0; i < size; i++)
+            sink.accept(xs[i], ys[i], zs[i]);
+    }
+
+    // --- Interpolation ---
+
+    /**
+     * Passes the points between two buffers to the given sink, matching points by their position in each buffer.
+     * Both buffers are walked at the same pace, so the n-th of k output points blends the points a fraction n / k of
+     * the way through each buffer. Buffers of the same size are matched index for index. The output has as many
+     * points as the larger buffer, so the number of points doesn't change as {@code t} does.
+     *
+     * @param from the points at {@code t = 0}
+     * @param to the points at {@code t = 1}
+     * @param t how far to blend from one buffer to the other, usually between 0 and 1
+     * @param sink the sink to pass the blended points to
+     */
+    public static void interpolate(PointBuffer from, PointBuffer to, double t, PointSink sink) {
+        int count = Math.max(from.size, to.size);
+        if (from.size == 0 || to.size == 0) {
+            (from.size == 0 ? to : from).emit(sink);
+            return;
+        }
+        double s = 1 - t;
+        for (int i = 0; i < count; i++) {
+            int a = from.size == count ? i : (int) ((long) i * from.size / count);
+            int b = to.size == count ? i : (int) ((long) i * to.size / count);
+            sink.accept(from.xs[a] * s + to.xs[b] * t, from.ys[a] * s + to.ys[b] * t, from.zs[a] * s + to.zs[b] * t);
+        }
+    }
+
+    // --- Adapters ---
+
+    /**
+     * Copies the points into a new insertion-ordered set, for callers that work with {@link Vector3d}s.
+     */
+    public Set<Vector3d> toVectorSet() {
+        Set<Vector3d> points = new LinkedHashSet<>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (int i = 0; i < size; i++)
+            points.add(new Vector3d(xs[i], ys[i], zs[i]));
+        return points;
+    }
+
+    @Override
+    public String toString() {
+        return "PointBuffer{size=" + size + '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.sovdee.shapes.sampling;
+
+/**
+ * Walks through a {@link PointBuffer} in consecutive time slices, for drawing points gradually over a duration.
+ * <p>
+ * Each point takes a fixed amount of time. Every call to {@link #next(PointSink)} emits the points that fit into
+ * one slice, carrying any overshoot into the following slice, so nothing is copied or converted ahead of time.
+ * Slices may also be given their own length with {@link #advance(double)}, for callers that measure how much time
+ * has actually passed. The buffer must not be modified while the cursor is in use.
+ */
+public final class PointCursor {
+
+    private final PointBuffer points;
+    private final double timePerPoint;
+    private final double timePerSlice;
+    private int position;
+    private double elapsed;
+
+    /**
+     * @param points       the points to walk through
+     * @param timePerPoint how long each point takes
+     * @param timePerSlice how long each slice lasts, in the same unit
+     */
+    public PointCursor(PointBuffer points, double timePerPoint, double timePerSlice) {
+        if (!(timePerSlice > 0))
+            throw new IllegalArgumentException("The slice duration must be positive.");
+        this.points = points;
+        this.timePerPoint = timePerPoint;
+        this.timePerSlice = timePerSlice;
+    }
+
+    /**
+     * @return true if there are points left to emit
+     */
+    public boolean hasNext() {
+        return position < points.size();
+    }
+
+    /**
+     * Emits the points of the next slice to the sink.
+     *
+     * @return the number of points emitted
+     */
+    public int next(PointSink sink) {
+        int start = position;
+        advance();
+        for (int i = start; i < position; i++)
+            sink.accept(points.getX(i), points.getY(i), points.getZ(i));
+        return position - start;
+    }
+
+    /**
+     * Moves past the points of the next slice without emitting them,
+     * for callers that read the range between {@link #getPosition()} before and after from the buffer themselves.
+     *
+     * @return the number of points in the slice
+     */
+    public int advance() {
+        return advance(timePerSlice);
+    }
+
+    /**
+     * Moves past the points that fit into a slice of the given length without emitting them,
+     * carrying any overshoot into the following slice like {@link #advance()}.
+     *
+     * @param time how long this slice lasts, in the same unit as the time per point
+     * @return the number of points in the slice
+     */
+    public int advance(double time) {
+        int start = position;
+        int size = points.size();
+        while (elapsed < time && position < size) {
+            elapsed += timePerPoint;
+            position++;
+        }
+        elapsed -= time;
+        return position - start;
+    }
+
+    /**
+     * @return the index of the next point to emit
+     */
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,44 @@
+package com.sovdee.shapes.sampling;
+
+/**
+ * Open-addressing hash set of {@code long} triples, used to deduplicate points without boxing.
+ */
+class PointKeySet {
+
+    private final long[] keys;
+    private final boolean[] used;
+    private final int mask;
+
+    PointKeySet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        this.keys = new long[capacity * 3];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return true if the triple was not already present
+     */
+    boolean add(long a, long b, long c) {
+        int slot = hash(a, b, c) & mask;
+        while (used[slot]) {
+            int k = slot * 3;
+            if (keys[k] == a && keys[k + 1] == b && keys[k + 2] == c)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        int k = slot * 3;
+        keys[k] = a;
+        keys[k + 1] = b;
+        keys[k + 2] = c;
+        return true;
+    }
+
+    private static int hash(long a, long b, long c) {
+        long h = a * 0x9E3779B97F4A7C15L;
+        h = (h ^ b) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ c) * 0x165667B19E3779F9L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -10,10 +10,16 @@ import java.util.UUID;
 
 /**
  * Responsible for sampling points from a {@link Shape}'s geometry.
- * Manages sampling configuration (style, density, ordering) and caching.
+ * Manages sampling configuration (style, density, ordering, deduplication) and caching.
  */
 public interface PointSampler extends Cloneable {
 
+    /**
+     * The number of levels of detail. Level 0 samples at the sampler's density, and each further level
+     * doubles the spacing between points.
+     */
+    int LEVELS_OF_DETAIL = 3;
+
     SamplingStyle getStyle();
     void setStyle(SamplingStyle style);
 
@@ -23,20 +29,71 @@ public interface PointSampler extends Cloneable {
     Comparator<Vector3d> getOrdering();
     void setOrdering(Comparator<Vector3d> ordering);
 
+    DeduplicationMode getDeduplicationMode();
+    void setDeduplicationMode(DeduplicationMode mode);
+
+    /**
+     * The grid spacing used by {@link DeduplicationMode#QUANTIZED}.
+     */
+    double getDeduplicationEpsilon();
+    void setDeduplicationEpsilon(double epsilon);
+
+    /**
+     * Whether shapes that split into independent partitions are generated in parallel.
+     * The resulting points and their order are the same either way.
+     */
+    boolean isParallel();
+    void setParallel(boolean parallel);
+
+    /**
+     * Whether drawers should give distant viewers a coarser level of detail.
+     */
+    boolean isLevelOfDetail();
+    void setLevelOfDetail(boolean levelOfDetail);
+
     UUID getUUID();
 
+    /**
+     * Returns the settings version, which changes whenever a setting that affects the sampled points changes.
+     */
+    long getSettingsVersion();
+
     DrawContext getDrawContext();
     void setDrawContext(DrawContext context);
 
     /**
      * Samples points from the given shape using the shape's own orientation.
+     * The returned buffer is owned by the sampler and must not be modified.
      */
-    Set<Vector3d> getPoints(Shape shape);
+    PointBuffer getPointBuffer(Shape shape);
 
     /**
      * Samples points from the given shape using the given orientation.
+     * The returned buffer is owned by the sampler and must not be modified.
      */
-    Set<Vector3d> getPoints(Shape shape, Quaterniond orientation);
+    PointBuffer getPointBuffer(Shape shape, Quaterniond orientation);
+
+    /**
+     * Samples points from the given shape using the given orientation, at the given level of detail.
+     * The returned buffer is owned by the sampler and must not be modified.
+     *
+     * @param level from 0 (full density) to {@link #LEVELS_OF_DETAIL} - 1
+     */
+    PointBuffer getPointBuffer(Shape shape, Quaterniond orientation, int level);
+
+    /**
+     * Samples points from the given shape using the shape's own orientation, copied into a new set.
+     */
+    default Set<Vector3d> getPoints(Shape shape) {
+        return getPointBuffer(shape).toVectorSet();
+    }
+
+    /**
+     * Samples points from the given shape using the given orientation, copied into a new set.
+     */
+    default Set<Vector3d> getPoints(Shape shape, Quaterniond orientation) {
+        return getPointBuffer(shape, orientation).toVectorSet();
+    }
 
     /**
      * Computes and sets the density to achieve approximately the given particle count.
@@ -0,0 +1,17 @@
+package com.sovdee.shapes.sampling;
+
+import org.joml.Vector3dc;
+
+/**
+ * Receives points one at a time as a shape generates them.
+ * Lets callers consume points without materializing a collection.
+ */
+@FunctionalInterface
+public interface PointSink {
+
+    void accept(double x, double y, double z);
+
+    default void accept(Vector3dc point) {
+        accept(point.x(), point.y(), point.z());
+    }
+}
@@ -1,13 +1,15 @@
 package com.sovdee.shapes.shapes;
 
 import com.sovdee.shapes.sampling.DefaultPointSampler;
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.PointSampler;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Quaterniond;
 import org.joml.Vector3d;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base implementation of {@link Shape} providing spatial transform, versioning,
@@ -15,18 +17,31 @@ import java.util.Set;
  */
 public abstract class AbstractShape implements Shape {
 
+    // Versions are drawn from one global sequence, so no two shapes or states ever share a version.
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
     private final Quaterniond orientation;
     private double scale;
-    private Vector3d offset;
+    private final Vector3d offset;
     private boolean dynamic = false;
-    private long version = 0;
+    private long version = VERSIONS.incrementAndGet();
+    private long transformVersion = VERSIONS.incrementAndGet();
     private PointSampler pointSampler;
+    // the supplied points the current geometry version was read from, see getSuppliedPoints()
+    private volatile List<Vector3d> lastSupplied;
 
     public AbstractShape() {
+        this(new DefaultPointSampler());
+    }
+
+    /**
+     * @param pointSampler the sampler to start with, for shapes that need other than the default settings
+     */
+    protected AbstractShape(PointSampler pointSampler) {
         this.orientation = new Quaterniond();
         this.scale = 1;
         this.offset = new Vector3d(0, 0, 0);
-        this.pointSampler = new DefaultPointSampler();
+        this.pointSampler = pointSampler;
     }
 
     // --- Spatial transform ---
@@ -39,6 +54,7 @@ public abstract class AbstractShape implements Shape {
     @Override
     public void setOrientation(Quaterniond orientation) {
         this.orientation.set(orientation);
+        transformVersion = VERSIONS.incrementAndGet();
     }
 
     @Override
@@ -47,6 +63,7 @@ public abstract class AbstractShape implements Shape {
     @Override
     public void setScale(double scale) {
         this.scale = scale;
+        transformVersion = VERSIONS.incrementAndGet();
     }
 
     @Override
@@ -56,7 +73,8 @@ public abstract class AbstractShape implements Shape {
 
     @Override
     public void setOffset(Vector3d offset) {
-        this.offset = offset;
+        this.offset.set(offset);
+        transformVersion = VERSIONS.incrementAndGet();
     }
 
     // --- Oriented axes ---
@@ -79,14 +97,40 @@ public abstract class AbstractShape implements Shape {
     // --- Change detection ---
 
     @Override
-    public long getVersion() { return version; }
+    public long getVersion() {
+        if (dynamic && tracksSuppliers())
+            checkSuppliers();
+        return version;
+    }
+
+    @Override
+    public long getTransformVersion() { return transformVersion; }
 
     /**
-     * Increments the version counter, signaling that geometry has changed.
+     * Assigns a new version, signaling that geometry has changed.
      * Call from dimension setters.
      */
     protected void invalidate() {
-        version++;
+        version = VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Invalidates the shape if any supplied point has moved by more than {@link Shape#EPSILON} since the geometry
+     * was last invalidated. Points are compared against the values of that version, not the last ones read,
+     * so a slow drift still adds up to a change.
+     */
+    private void checkSuppliers() {
+        List<Vector3d> supplied = getSuppliedPoints();
+        List<Vector3d> last = lastSupplied;
+        if (last != null && last.size() == supplied.size()) {
+            boolean changed = false;
+            for (int i = 0; i < supplied.size() && !changed; i++)
+                changed = !supplied.get(i).equals(last.get(i), EPSILON);
+            if (!changed)
+                return;
+        }
+        lastSupplied = supplied;
+        invalidate();
     }
 
     // --- Dynamic support ---
@@ -97,15 +141,39 @@ public abstract class AbstractShape implements Shape {
     @Override
     public void setDynamic(boolean dynamic) { this.dynamic = dynamic; }
 
+    @Override
+    public boolean resamplesEveryDraw() { return dynamic && !tracksSuppliers(); }
+
+    /**
+     * Returns true if the shape's geometry is read from suppliers, see {@link #getSuppliedPoints()}.
+     * A dynamic shape that does so is only sampled again once a supplied point moves.
+     */
+    protected boolean tracksSuppliers() { return false; }
+
+    /**
+     * Reads the current values of the suppliers the shape's geometry is read from.
+     * Only called on dynamic shapes that {@link #tracksSuppliers()}.
+     */
+    protected List<Vector3d> getSuppliedPoints() { return List.of(); }
+
+    /**
+     * Gets the supplied points to sample the shape from: those of the current geometry version, so sampling doesn't
+     * read the suppliers again, or the suppliers' current values if the shape isn't tracking them.
+     */
+    protected List<Vector3d> getSampledPoints() {
+        List<Vector3d> supplied = dynamic && tracksSuppliers() ? lastSupplied : null;
+        return supplied != null ? supplied : getSuppliedPoints();
+    }
+
     // --- Point generation defaults ---
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         generateOutline(points, density);
     }
 
     @Override
-    public void generateFilled(Set<Vector3d> points, double density) {
+    public void generateFilled(PointSink points, double density) {
         generateSurface(points, density);
     }
 
@@ -130,16 +198,35 @@ public abstract class AbstractShape implements Shape {
 
     // --- Vertical fill helper ---
 
-    protected static void fillVertically(Set<Vector3d> points, double height, double density) {
-        Set<Vector3d> base = new LinkedHashSet<>(points);
-        double heightStep = height / Math.round(height / density);
-        for (double y = 0; y < height; y += heightStep) {
-            for (Vector3d v : base) {
-                points.add(new Vector3d(v.x, y, v.z));
+    /**
+     * Emits the base points, then copies of them in layers up to the given height.
+     * The base points are expected to lie on y = 0.
+     */
+    protected static void fillVertically(PointSink points, PointBuffer base, double height, double density) {
+        base.emit(points);
+        double[] layerHeights = getLayerHeights(height, density);
+        for (int layer = 1; layer < layerHeights.length; layer++) {
+            double y = layerHeights[layer];
+            for (int i = 0; i < base.size(); i++) {
+                points.accept(base.getX(i), y, base.getZ(i));
             }
         }
     }
 
+    /**
+     * Returns the heights of the layers {@link #fillVertically} emits, starting with the base at 0.
+     */
+    protected static double[] getLayerHeights(double height, double density) {
+        double heightStep = height / Math.round(height / density);
+        int count = 1;
+        for (double y = heightStep; y < height; y += heightStep)
+            count++;
+        double[] heights = new double[count];
+        for (int i = 1; i < count; i++)
+            heights[i] = heights[i - 1] + heightStep;
+        return heights;
+    }
+
     // --- Replication ---
 
     @Override
@@ -158,6 +245,10 @@ public abstract class AbstractShape implements Shape {
         destSampler.setStyle(srcSampler.getStyle());
         destSampler.setDensity(srcSampler.getDensity());
         destSampler.setOrdering(srcSampler.getOrdering());
+        destSampler.setDeduplicationMode(srcSampler.getDeduplicationMode());
+        destSampler.setDeduplicationEpsilon(srcSampler.getDeduplicationEpsilon());
+        destSampler.setParallel(srcSampler.isParallel());
+        destSampler.setLevelOfDetail(srcSampler.isLevelOfDetail());
         if (srcSampler.getDrawContext() != null)
             destSampler.setDrawContext(srcSampler.getDrawContext().copy());
 
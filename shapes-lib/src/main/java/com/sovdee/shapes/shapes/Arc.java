@@ -1,9 +1,8 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointSink;
 import org.joml.Vector3d;
 
-import java.util.Set;
-
 public class Arc extends Circle implements CutoffShape {
 
     public Arc(double radius, double cutoffAngle) {
@@ -17,7 +16,7 @@ public class Arc extends Circle implements CutoffShape {
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         generateFilled(points, density);
     }
 
@@ -1,11 +1,11 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.function.Supplier;
 
 /**
@@ -46,11 +46,10 @@ public class BezierCurve extends AbstractShape {
     }
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
+    public void generateOutline(PointSink points, double density) {
         if (controlPointsSupplier != null) {
-            List<Vector3d> pts = controlPointsSupplier.get();
             this.controlPoints = new ArrayList<>();
-            for (Vector3d cp : pts)
+            for (Vector3d cp : getSampledPoints())
                 this.controlPoints.add(new Vector3d(cp));
         }
         int steps = (int) (estimateLength() / density);
@@ -70,7 +69,7 @@ public class BezierCurve extends AbstractShape {
                     temp[i].mul(nt).add(new Vector3d(temp[i + 1]).mul(t));
                 }
             }
-            points.add(new Vector3d(temp[0]));
+            points.accept(temp[0]);
         }
     }
 
@@ -125,6 +124,25 @@ public class BezierCurve extends AbstractShape {
         return controlPointsSupplier;
     }
 
+    @Override
+    protected boolean tracksSuppliers() { return controlPointsSupplier != null; }
+
+    @Override
+    protected List<Vector3d> getSuppliedPoints() {
+        List<Vector3d> points = new ArrayList<>();
+        for (Vector3d cp : controlPointsSupplier.get())
+            points.add(new Vector3d(cp));
+        return points;
+    }
+
+    @Override
+    public Object getGeometryKey() {
+        List<Vector3d> points = new ArrayList<>(controlPoints.size());
+        for (Vector3d cp : controlPoints)
+            points.add(new Vector3d(cp));
+        return List.of(getClass(), points);
+    }
+
     @Override
     public Shape clone() {
         BezierCurve clone;
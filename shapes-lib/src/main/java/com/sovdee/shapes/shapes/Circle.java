@@ -1,12 +1,13 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.List;
 
-public class Circle extends AbstractShape implements RadialShape, LWHShape {
+public class Circle extends AbstractShape implements RadialShape, LWHShape, PartitionedShape {
 
     private double radius;
     protected double cutoffAngle;
@@ -25,69 +26,79 @@ public class Circle extends AbstractShape implements RadialShape, LWHShape {
 
     // --- Static calculation methods ---
 
-    public static Set<Vector3d> calculateCircle(double radius, double density, double cutoffAngle) {
-        Set<Vector3d> points = new LinkedHashSet<>();
+    public static void calculateCircle(PointSink points, double radius, double density, double cutoffAngle) {
         double stepSize = density / radius;
         for (double theta = 0; theta < cutoffAngle; theta += stepSize) {
-            points.add(new Vector3d(Math.cos(theta) * radius, 0, Math.sin(theta) * radius));
+            points.accept(Math.cos(theta) * radius, 0, Math.sin(theta) * radius);
         }
-        return points;
     }
 
-    public static Set<Vector3d> calculateDisc(double radius, double density, double cutoffAngle) {
-        Set<Vector3d> points = new LinkedHashSet<>();
+    public static void calculateDisc(PointSink points, double radius, double density, double cutoffAngle) {
         for (double subRadius = density; subRadius < radius; subRadius += density) {
-            points.addAll(calculateCircle(subRadius, density, cutoffAngle));
+            calculateCircle(points, subRadius, density, cutoffAngle);
         }
-        points.addAll(calculateCircle(radius, density, cutoffAngle));
-        return points;
+        calculateCircle(points, radius, density, cutoffAngle);
     }
 
-    public static Set<Vector3d> calculateCylinder(double radius, double height, double density, double cutoffAngle) {
-        Set<Vector3d> points = calculateDisc(radius, density, cutoffAngle);
+    public static void calculateCylinder(PointSink points, double radius, double height, double density, double cutoffAngle) {
+        PointBuffer disc = new PointBuffer();
+        calculateDisc(disc, radius, density, cutoffAngle);
+        disc.emit(points);
         // Top disc via direct loop
-        Set<Vector3d> top = new LinkedHashSet<>();
-        for (Vector3d v : points) {
-            top.add(new Vector3d(v.x, height, v.z));
+        for (int i = 0; i < disc.size(); i++) {
+            points.accept(disc.getX(i), height, disc.getZ(i));
         }
-        points.addAll(top);
         // Wall
-        Set<Vector3d> wall = calculateCircle(radius, density, cutoffAngle);
-        fillVertically(wall, height, density);
-        points.addAll(wall);
-        return points;
+        PointBuffer wall = new PointBuffer();
+        calculateCircle(wall, radius, density, cutoffAngle);
+        fillVertically(points, wall, height, density);
     }
 
     // --- Generation methods ---
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
-        Set<Vector3d> circle = calculateCircle(radius, density, cutoffAngle);
-        if (height != 0) {
-            fillVertically(circle, height, density);
-            points.addAll(circle);
-        } else {
-            points.addAll(circle);
+    public void generateOutline(PointSink points, double density) {
+        if (height == 0) {
+            calculateCircle(points, radius, density, cutoffAngle);
+            return;
         }
+        PointBuffer base = new PointBuffer();
+        calculateCircle(base, radius, density, cutoffAngle);
+        fillVertically(points, base, height, density);
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         if (height != 0)
-            points.addAll(calculateCylinder(radius, height, density, cutoffAngle));
+            calculateCylinder(points, radius, height, density, cutoffAngle);
         else
-            points.addAll(calculateDisc(radius, density, cutoffAngle));
+            calculateDisc(points, radius, density, cutoffAngle);
     }
 
     @Override
-    public void generateFilled(Set<Vector3d> points, double density) {
-        Set<Vector3d> disc = calculateDisc(radius, density, cutoffAngle);
-        if (height != 0) {
-            fillVertically(disc, height, density);
-            points.addAll(disc);
-        } else {
-            points.addAll(disc);
+    public void generateFilled(PointSink points, double density) {
+        if (height == 0) {
+            calculateDisc(points, radius, density, cutoffAngle);
+            return;
         }
+        PointBuffer base = new PointBuffer();
+        calculateDisc(base, radius, density, cutoffAngle);
+        fillVertically(points, base, height, density);
+    }
+
+    // Filled cylinders partition into horizontal slabs
+
+    @Override
+    public int getPartitionCount(SamplingStyle style, double density) {
+        if (style != SamplingStyle.FILL || height == 0)
+            return 0;
+        return getLayerHeights(height, density).length;
+    }
+
+    @Override
+    public void generatePartition(SamplingStyle style, int index, PointSink points, double density) {
+        double y = getLayerHeights(height, density)[index];
+        calculateDisc((x, ignored, z) -> points.accept(x, y, z), radius, density, cutoffAngle);
     }
 
     @Override
@@ -147,6 +158,11 @@ public class Circle extends AbstractShape implements RadialShape, LWHShape {
         invalidate();
     }
 
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), radius, cutoffAngle, height);
+    }
+
     @Override
     public Shape clone() {
         return this.copyTo(new Circle(radius, height));
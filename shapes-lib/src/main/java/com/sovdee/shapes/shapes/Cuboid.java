@@ -1,16 +1,17 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
-import java.util.Set;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
  * A cuboid shape, defined either by dimensions or by two corner vectors.
  * For dynamic (entity-following) cuboids, use the plugin-side DynamicCuboid wrapper.
  */
-public class Cuboid extends AbstractShape implements LWHShape {
+public class Cuboid extends AbstractShape implements LWHShape, PartitionedShape {
 
     private double halfLength, halfWidth, halfHeight;
     private double lengthStep, widthStep, heightStep;
@@ -56,75 +57,98 @@ public class Cuboid extends AbstractShape implements LWHShape {
     @Override
     public void beforeSampling(double density) {
         if (cornerASupplier != null && cornerBSupplier != null) {
-            Vector3d a = cornerASupplier.get();
-            Vector3d b = cornerBSupplier.get();
-            this.halfLength = Math.max(Math.abs(b.x - a.x) / 2, Shape.EPSILON);
-            this.halfWidth = Math.max(Math.abs(b.z - a.z) / 2, Shape.EPSILON);
-            this.halfHeight = Math.max(Math.abs(b.y - a.y) / 2, Shape.EPSILON);
+            Vector3d diagonal = getSampledPoints().get(0);
+            this.halfLength = Math.max(Math.abs(diagonal.x) / 2, Shape.EPSILON);
+            this.halfWidth = Math.max(Math.abs(diagonal.z) / 2, Shape.EPSILON);
+            this.halfHeight = Math.max(Math.abs(diagonal.y) / 2, Shape.EPSILON);
         }
         calculateSteps(density);
     }
 
-    @Override
-    public void afterSampling(Set<Vector3d> points) {
-        points.forEach(vector -> vector.add(centerOffset));
+    private void emit(PointSink points, double x, double y, double z) {
+        points.accept(x + centerOffset.x, y + centerOffset.y, z + centerOffset.z);
     }
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
+    public void generateOutline(PointSink points, double density) {
         for (double x = -halfLength; x <= halfLength; x += lengthStep) {
-            points.add(new Vector3d(x, -halfHeight, -halfWidth));
-            points.add(new Vector3d(x, -halfHeight, halfWidth));
-            points.add(new Vector3d(x, halfHeight, -halfWidth));
-            points.add(new Vector3d(x, halfHeight, halfWidth));
+            emit(points, x, -halfHeight, -halfWidth);
+            emit(points, x, -halfHeight, halfWidth);
+            emit(points, x, halfHeight, -halfWidth);
+            emit(points, x, halfHeight, halfWidth);
         }
         for (double y = -halfHeight + heightStep; y < halfHeight; y += heightStep) {
-            points.add(new Vector3d(-halfLength, y, -halfWidth));
-            points.add(new Vector3d(-halfLength, y, halfWidth));
-            points.add(new Vector3d(halfLength, y, -halfWidth));
-            points.add(new Vector3d(halfLength, y, halfWidth));
+            emit(points, -halfLength, y, -halfWidth);
+            emit(points, -halfLength, y, halfWidth);
+            emit(points, halfLength, y, -halfWidth);
+            emit(points, halfLength, y, halfWidth);
         }
         for (double z = -halfWidth + widthStep; z < halfWidth; z += widthStep) {
-            points.add(new Vector3d(-halfLength, -halfHeight, z));
-            points.add(new Vector3d(-halfLength, halfHeight, z));
-            points.add(new Vector3d(halfLength, -halfHeight, z));
-            points.add(new Vector3d(halfLength, halfHeight, z));
+            emit(points, -halfLength, -halfHeight, z);
+            emit(points, -halfLength, halfHeight, z);
+            emit(points, halfLength, -halfHeight, z);
+            emit(points, halfLength, halfHeight, z);
         }
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         for (double x = -halfLength; x <= halfLength; x += lengthStep) {
             for (double z = -halfWidth; z <= halfWidth; z += widthStep) {
-                points.add(new Vector3d(x, -halfHeight, z));
-                points.add(new Vector3d(x, halfHeight, z));
+                emit(points, x, -halfHeight, z);
+                emit(points, x, halfHeight, z);
             }
         }
         for (double y = -halfHeight + heightStep; y < halfHeight; y += heightStep) {
             for (double z = -halfWidth; z <= halfWidth; z += widthStep) {
-                points.add(new Vector3d(-halfLength, y, z));
-                points.add(new Vector3d(halfLength, y, z));
+                emit(points, -halfLength, y, z);
+                emit(points, halfLength, y, z);
             }
         }
         for (double x = -halfLength + lengthStep; x < halfLength; x += lengthStep) {
             for (double y = -halfHeight + heightStep; y < halfHeight; y += heightStep) {
-                points.add(new Vector3d(x, y, -halfWidth));
-                points.add(new Vector3d(x, y, halfWidth));
+                emit(points, x, y, -halfWidth);
+                emit(points, x, y, halfWidth);
             }
         }
     }
 
     @Override
-    public void generateFilled(Set<Vector3d> points, double density) {
+    public void generateFilled(PointSink points, double density) {
         for (double x = -halfLength; x <= halfLength; x += lengthStep) {
-            for (double y = -halfHeight; y <= halfHeight; y += heightStep) {
-                for (double z = -halfWidth; z <= halfWidth; z += widthStep) {
-                    points.add(new Vector3d(x, y, z));
-                }
+            generateSlab(points, x);
+        }
+    }
+
+    private void generateSlab(PointSink points, double x) {
+        for (double y = -halfHeight; y <= halfHeight; y += heightStep) {
+            for (double z = -halfWidth; z <= halfWidth; z += widthStep) {
+                emit(points, x, y, z);
             }
         }
     }
 
+    // Filled cuboids partition into slabs along the x axis
+
+    @Override
+    public int getPartitionCount(SamplingStyle style, double density) {
+        if (style != SamplingStyle.FILL)
+            return 0;
+        int count = 0;
+        for (double x = -halfLength; x <= halfLength; x += lengthStep)
+            count++;
+        return count;
+    }
+
+    @Override
+    public void generatePartition(SamplingStyle style, int index, PointSink points, double density) {
+        // accumulate the same way as generateFilled, so slabs land on identical coordinates
+        double x = -halfLength;
+        for (int i = 0; i < index; i++)
+            x += lengthStep;
+        generateSlab(points, x);
+    }
+
     @Override
     public double computeDensity(SamplingStyle style, int targetPointCount) {
         int count = Math.max(1, targetPointCount);
@@ -172,6 +196,22 @@ public class Cuboid extends AbstractShape implements LWHShape {
     public Supplier<Vector3d> getCornerASupplier() { return cornerASupplier; }
     public Supplier<Vector3d> getCornerBSupplier() { return cornerBSupplier; }
 
+    @Override
+    protected boolean tracksSuppliers() { return cornerASupplier != null && cornerBSupplier != null; }
+
+    /**
+     * Only the distance between the corners shapes the geometry, so corners moving together don't change it.
+     */
+    @Override
+    protected List<Vector3d> getSuppliedPoints() {
+        return List.of(new Vector3d(cornerBSupplier.get()).sub(cornerASupplier.get()));
+    }
+
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), halfLength, halfWidth, halfHeight, new Vector3d(centerOffset));
+    }
+
     @Override
     public Shape clone() {
         Cuboid cuboid;
@@ -1,12 +1,11 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 
 public class Ellipse extends AbstractShape implements LWHShape {
 
@@ -36,8 +35,7 @@ public class Ellipse extends AbstractShape implements LWHShape {
         return Math.PI * (a + b) * (1 + 3 * h / (10 + Math.sqrt(4 - 3 * h)));
     }
 
-    public static List<Vector3d> calculateEllipse(double r1, double r2, double density, double cutoffAngle) {
-        List<Vector3d> points = new ArrayList<>();
+    public static void calculateEllipse(PointSink points, double r1, double r2, double density, double cutoffAngle) {
         double circumference = ellipseCircumference(r1, r2);
 
         int steps = (int) Math.round(circumference / density);
@@ -47,71 +45,67 @@ public class Ellipse extends AbstractShape implements LWHShape {
             if (theta > cutoffAngle) {
                 break;
             }
-            points.add(new Vector3d(r1 * Math.cos(theta), 0, r2 * Math.sin(theta)));
+            points.accept(r1 * Math.cos(theta), 0, r2 * Math.sin(theta));
             double dx = r1 * Math.sin(theta + 0.5 * angleStep);
             double dy = r2 * Math.cos(theta + 0.5 * angleStep);
             angleStep = density / Math.sqrt(dx * dx + dy * dy);
             theta += angleStep;
         }
-        return points;
     }
 
-    public static Set<Vector3d> calculateEllipticalDisc(double r1, double r2, double density, double cutoffAngle) {
-        Set<Vector3d> points = new LinkedHashSet<>();
+    public static void calculateEllipticalDisc(PointSink points, double r1, double r2, double density, double cutoffAngle) {
         int steps = (int) Math.round(Math.max(r1, r2) / density);
         double r;
         for (double i = 1; i <= steps; i += 1) {
             r = i / steps;
-            points.addAll(calculateEllipse(r1 * r, r2 * r, density, cutoffAngle));
+            calculateEllipse(points, r1 * r, r2 * r, density, cutoffAngle);
         }
-        return points;
     }
 
-    public static Set<Vector3d> calculateCylinder(double r1, double r2, double height, double density, double cutoffAngle) {
-        Set<Vector3d> points = calculateEllipticalDisc(r1, r2, density, cutoffAngle);
+    public static void calculateCylinder(PointSink points, double r1, double r2, double height, double density, double cutoffAngle) {
+        PointBuffer disc = new PointBuffer();
+        calculateEllipticalDisc(disc, r1, r2, density, cutoffAngle);
+        disc.emit(points);
         // Top disc via direct loop
-        Set<Vector3d> top = new LinkedHashSet<>();
-        for (Vector3d v : points) {
-            top.add(new Vector3d(v.x, height, v.z));
+        for (int i = 0; i < disc.size(); i++) {
+            points.accept(disc.getX(i), height, disc.getZ(i));
         }
-        points.addAll(top);
         // Wall
-        Set<Vector3d> wall = new LinkedHashSet<>(calculateEllipse(r1, r2, density, cutoffAngle));
-        fillVertically(wall, height, density);
-        points.addAll(wall);
-        return points;
+        PointBuffer wall = new PointBuffer();
+        calculateEllipse(wall, r1, r2, density, cutoffAngle);
+        fillVertically(points, wall, height, density);
     }
 
     // --- Generation methods ---
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
-        Set<Vector3d> ellipse = new LinkedHashSet<>(calculateEllipse(xRadius, zRadius, density, cutoffAngle));
-        if (height != 0) {
-            fillVertically(ellipse, height, density);
-            points.addAll(ellipse);
-        } else {
-            points.addAll(ellipse);
+    public void generateOutline(PointSink points, double density) {
+        if (height == 0) {
+            calculateEllipse(points, xRadius, zRadius, density, cutoffAngle);
+            return;
         }
+        PointBuffer base = new PointBuffer();
+        calculateEllipse(base, xRadius, zRadius, density, cutoffAngle);
+        fillVertically(points, base, height, density);
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         if (height != 0)
-            points.addAll(calculateCylinder(xRadius, zRadius, height, density, cutoffAngle));
+            calculateCylinder(points, xRadius, zRadius, height, density, cutoffAngle);
         else
-            points.addAll(calculateEllipticalDisc(xRadius, zRadius, density, cutoffAngle));
+            calculateEllipticalDisc(points, xRadius, zRadius, density, cutoffAngle);
     }
 
     @Override
-    public void generateFilled(Set<Vector3d> points, double density) {
-        Set<Vector3d> disc = calculateEllipticalDisc(xRadius, zRadius, density, cutoffAngle);
-        if (height != 0) {
-            fillVertically(disc, height, density);
-            points.addAll(disc);
-        } else {
-            points.addAll(disc);
+    public void generateFilled(PointSink points, double density) {
+        if (height == 0) {
+            calculateEllipticalDisc(points, xRadius, zRadius, density, cutoffAngle);
+            return;
         }
+        PointBuffer base = new PointBuffer();
+        calculateEllipticalDisc(base, xRadius, zRadius, density, cutoffAngle);
+        fillVertically(points, base, height, density);
     }
 
     @Override
@@ -163,6 +157,11 @@ public class Ellipse extends AbstractShape implements LWHShape {
         invalidate();
     }
 
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), xRadius, zRadius, height, cutoffAngle);
+    }
+
     @Override
     public Shape clone() {
         return this.copyTo(new Ellipse(xRadius, zRadius, height));
@@ -1,15 +1,14 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
-import com.sovdee.shapes.util.VectorUtil;
 import org.joml.Quaterniond;
 import org.joml.Vector3d;
 
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 
-public class Ellipsoid extends AbstractShape implements LWHShape {
+public class Ellipsoid extends AbstractShape implements LWHShape, PartitionedShape {
 
     private static final Quaterniond XY_ROTATION = new Quaterniond().rotateX(Math.PI / 2);
     private static final Quaterniond ZY_ROTATION = new Quaterniond().rotateZ(Math.PI / 2);
@@ -25,51 +24,77 @@ public class Ellipsoid extends AbstractShape implements LWHShape {
     }
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
-        points.addAll(Ellipse.calculateEllipse(xRadius, zRadius, density, 2 * Math.PI));
-        points.addAll(VectorUtil.transform(XY_ROTATION, Ellipse.calculateEllipse(xRadius, yRadius, density, 2 * Math.PI)));
-        points.addAll(VectorUtil.transform(ZY_ROTATION, Ellipse.calculateEllipse(yRadius, zRadius, density, 2 * Math.PI)));
+    public void generateOutline(PointSink points, double density) {
+        Ellipse.calculateEllipse(points, xRadius, zRadius, density, 2 * Math.PI);
+        PointBuffer ellipse = new PointBuffer();
+        Ellipse.calculateEllipse(ellipse, xRadius, yRadius, density, 2 * Math.PI);
+        ellipse.rotate(XY_ROTATION, 0);
+        ellipse.emit(points);
+        ellipse.clear();
+        Ellipse.calculateEllipse(ellipse, yRadius, zRadius, density, 2 * Math.PI);
+        ellipse.rotate(ZY_ROTATION, 0);
+        ellipse.emit(points);
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
-        List<Vector3d> ellipse;
-        if (xRadius > zRadius) {
-            ellipse = VectorUtil.transform(XY_ROTATION, Ellipse.calculateEllipse(xRadius, yRadius, density, 2 * Math.PI));
-        } else {
-            ellipse = VectorUtil.transform(ZY_ROTATION, Ellipse.calculateEllipse(yRadius, zRadius, density, 2 * Math.PI));
+    public void generateSurface(PointSink points, double density) {
+        PointBuffer ellipse = new PointBuffer();
+        calculateProfile(ellipse, 1, density);
+        generateEllipsoid(points, ellipse, 1, density);
+    }
+
+    @Override
+    public void generateFilled(PointSink points, double density) {
+        int layers = getPartitionCount(SamplingStyle.FILL, density);
+        for (int i = 0; i < layers; i++) {
+            generatePartition(SamplingStyle.FILL, i, points, density);
         }
-        points.addAll(generateEllipsoid(ellipse, 1, density));
     }
 
+    // Filled ellipsoids partition into scaled layers, outermost first
+
     @Override
-    public void generateFilled(Set<Vector3d> points, double density) {
-        List<Vector3d> ellipse;
-        double radius = Math.max(xRadius, zRadius);
-        int steps = (int) Math.round(radius / density);
-        for (int i = steps; i > 0; i--) {
-            double r = (i / (double) steps);
-            if (xRadius > zRadius) {
-                ellipse = VectorUtil.transform(XY_ROTATION, Ellipse.calculateEllipse(xRadius * r, yRadius * r, density, 2 * Math.PI));
-            } else {
-                ellipse = VectorUtil.transform(ZY_ROTATION, Ellipse.calculateEllipse(yRadius * r, zRadius * r, density, 2 * Math.PI));
-            }
-            points.addAll(generateEllipsoid(ellipse, r, density));
+    public int getPartitionCount(SamplingStyle style, double density) {
+        if (style != SamplingStyle.FILL)
+            return 0;
+        return (int) Math.round(Math.max(xRadius, zRadius) / density);
+    }
+
+    @Override
+    public void generatePartition(SamplingStyle style, int index, PointSink points, double density) {
+        int steps = (int) Math.round(Math.max(xRadius, zRadius) / density);
+        double r = ((steps - index) / (double) steps);
+        PointBuffer ellipse = new PointBuffer();
+        calculateProfile(ellipse, r, density);
+        generateEllipsoid(points, ellipse, r, density);
+    }
+
+    /**
+     * Calculates the vertical ellipse through the longer horizontal axis, used to place the horizontal rings.
+     */
+    private void calculateProfile(PointBuffer ellipse, double radius, double density) {
+        if (xRadius > zRadius) {
+            Ellipse.calculateEllipse(ellipse, xRadius * radius, yRadius * radius, density, 2 * Math.PI);
+            ellipse.rotate(XY_ROTATION, 0);
+        } else {
+            Ellipse.calculateEllipse(ellipse, yRadius * radius, zRadius * radius, density, 2 * Math.PI);
+            ellipse.rotate(ZY_ROTATION, 0);
         }
     }
 
-    private Set<Vector3d> generateEllipsoid(List<Vector3d> ellipse, double radius, double density) {
-        Set<Vector3d> points = new LinkedHashSet<>();
+    private void generateEllipsoid(PointSink points, PointBuffer ellipse, double radius, double density) {
+        PointBuffer ring = new PointBuffer();
         for (int i = 0; i < Math.ceil(ellipse.size() / 4.0); i++) {
-            double y = ellipse.get(i).y;
+            double y = ellipse.getY(i);
             double theta = Math.asin(y / (yRadius * radius));
-            for (Vector3d v2 : Ellipse.calculateEllipse(radius * xRadius * Math.cos(theta), radius * zRadius * Math.cos(theta), density, 2 * Math.PI)) {
-                points.add(new Vector3d(v2.x, y, v2.z));
-                points.add(new Vector3d(v2.x, -y, v2.z));
+            ring.clear();
+            Ellipse.calculateEllipse(ring, radius * xRadius * Math.cos(theta), radius * zRadius * Math.cos(theta), density, 2 * Math.PI);
+            for (int j = 0; j < ring.size(); j++) {
+                points.accept(ring.getX(j), y, ring.getZ(j));
+                points.accept(ring.getX(j), -y, ring.getZ(j));
             }
         }
-        points.addAll(Ellipse.calculateEllipse(radius * xRadius, radius * zRadius, density, 2 * Math.PI));
-        return points;
+        Ellipse.calculateEllipse(points, radius * xRadius, radius * zRadius, density, 2 * Math.PI);
     }
 
     @Override
@@ -131,6 +156,11 @@ public class Ellipsoid extends AbstractShape implements LWHShape {
         invalidate();
     }
 
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), xRadius, yRadius, zRadius);
+    }
+
     @Override
     public Shape clone() {
         return this.copyTo(new Ellipsoid(xRadius, yRadius, zRadius));
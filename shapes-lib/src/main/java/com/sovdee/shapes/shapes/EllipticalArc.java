@@ -1,9 +1,8 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointSink;
 import org.joml.Vector3d;
 
-import java.util.Set;
-
 public class EllipticalArc extends Ellipse implements CutoffShape {
 
     public EllipticalArc(double xRadius, double zRadius, double cutoffAngle) {
@@ -16,7 +15,7 @@ public class EllipticalArc extends Ellipse implements CutoffShape {
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         generateFilled(points, density);
     }
 
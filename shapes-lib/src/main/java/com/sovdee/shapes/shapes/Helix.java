@@ -1,10 +1,10 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.List;
 
 public class Helix extends AbstractShape implements RadialShape, LWHShape {
 
@@ -30,10 +30,9 @@ public class Helix extends AbstractShape implements RadialShape, LWHShape {
         this.direction = direction;
     }
 
-    private static Set<Vector3d> calculateHelix(double radius, double height, double slope, int direction, double density) {
-        Set<Vector3d> points = new LinkedHashSet<>();
+    private static void calculateHelix(PointSink points, double radius, double height, double slope, int direction, double density) {
         if (radius <= 0 || height <= 0) {
-            return points;
+            return;
         }
         double loops = Math.abs(height / slope);
         double length = slope * slope + radius * radius;
@@ -41,20 +40,19 @@ public class Helix extends AbstractShape implements RadialShape, LWHShape {
         for (double t = 0; t < loops; t += stepSize) {
             double x = radius * Math.cos(direction * t);
             double z = radius * Math.sin(direction * t);
-            points.add(new Vector3d(x, t * slope, z));
+            points.accept(x, t * slope, z);
         }
-        return points;
     }
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
-        points.addAll(calculateHelix(radius, height, slope, direction, density));
+    public void generateOutline(PointSink points, double density) {
+        calculateHelix(points, radius, height, slope, direction, density);
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         for (double r = radius; r > 0; r -= density) {
-            points.addAll(calculateHelix(r, height, slope, direction, density));
+            calculateHelix(points, r, height, slope, direction, density);
         }
     }
 
@@ -127,6 +125,11 @@ public class Helix extends AbstractShape implements RadialShape, LWHShape {
         invalidate();
     }
 
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), radius, height, slope, direction);
+    }
+
     @Override
     public Shape clone() {
         return this.copyTo(new Helix(radius, height, slope, direction));
@@ -1,13 +1,13 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 
 public class IrregularPolygon extends AbstractShape implements LWHShape {
 
@@ -46,17 +46,17 @@ public class IrregularPolygon extends AbstractShape implements LWHShape {
     }
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
-        points.addAll(Line.connectPoints(vertices, density));
-        points.addAll(Line.calculateLine(vertices.get(0), vertices.get(vertices.size() - 1), density));
+    public void generateOutline(PointSink points, double density) {
+        PointBuffer base = new PointBuffer();
+        Line.connectPoints(base, vertices, density);
+        Line.calculateLine(base, vertices.get(0), vertices.get(vertices.size() - 1), density);
+        base.emit(points);
         if (height != 0) {
-            Set<Vector3d> upperPoints = new LinkedHashSet<>();
-            for (Vector3d v : points) {
-                upperPoints.add(new Vector3d(v.x, height, v.z));
+            for (int i = 0; i < base.size(); i++) {
+                points.accept(base.getX(i), height, base.getZ(i));
             }
-            points.addAll(upperPoints);
             for (Vector3d v : vertices) {
-                points.addAll(Line.calculateLine(v, new Vector3d(v.x, height, v.z), density));
+                Line.calculateLine(points, v, new Vector3d(v.x, height, v.z), density);
             }
         }
     }
@@ -113,6 +113,14 @@ public class IrregularPolygon extends AbstractShape implements LWHShape {
         invalidate();
     }
 
+    @Override
+    public Object getGeometryKey() {
+        List<Vector3d> points = new ArrayList<>(vertices.size());
+        for (Vector3d vertex : vertices)
+            points.add(new Vector3d(vertex));
+        return List.of(getClass(), points, height);
+    }
+
     @Override
     public Shape clone() {
         return this.copyTo(new IrregularPolygon(vertices, height));
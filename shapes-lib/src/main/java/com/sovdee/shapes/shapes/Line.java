@@ -1,11 +1,10 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.function.Supplier;
 
 /**
@@ -41,8 +40,7 @@ public class Line extends AbstractShape implements LWHShape {
     /**
      * Calculates points along a line from start to end with the given density.
      */
-    public static Set<Vector3d> calculateLine(Vector3d start, Vector3d end, double density) {
-        Set<Vector3d> points = new LinkedHashSet<>();
+    public static void calculateLine(PointSink points, Vector3d start, Vector3d end, double density) {
         Vector3d direction = new Vector3d(end).sub(start);
         double length = direction.length();
         double step = length / Math.round(length / density);
@@ -51,26 +49,24 @@ public class Line extends AbstractShape implements LWHShape {
         Vector3d current = new Vector3d(start);
         int count = (int) (length / step);
         for (int i = 0; i <= count; i++) {
-            points.add(new Vector3d(current));
+            points.accept(current);
             current.add(direction);
         }
-        return points;
     }
 
     /**
      * Connects a list of points with lines, returning all intermediate points.
      */
-    public static Set<Vector3d> connectPoints(List<Vector3d> points, double density) {
-        Set<Vector3d> connectedPoints = new LinkedHashSet<>();
-        for (int i = 0; i < points.size() - 1; i++) {
-            connectedPoints.addAll(calculateLine(points.get(i), points.get(i + 1), density));
+    public static void connectPoints(PointSink points, List<Vector3d> vertices, double density) {
+        for (int i = 0; i < vertices.size() - 1; i++) {
+            calculateLine(points, vertices.get(i), vertices.get(i + 1), density);
         }
-        return connectedPoints;
     }
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
-        points.addAll(calculateLine(getStart(), getEnd(), density));
+    public void generateOutline(PointSink points, double density) {
+        List<Vector3d> ends = getSampledPoints();
+        calculateLine(points, ends.get(0), ends.get(1), density);
     }
 
     public Vector3d getStart() {
@@ -99,6 +95,7 @@ public class Line extends AbstractShape implements LWHShape {
 
     public void setStartSupplier(Supplier<Vector3d> startSupplier) {
         this.startSupplier = startSupplier;
+        invalidate();
     }
 
     public Supplier<Vector3d> getEndSupplier() {
@@ -107,6 +104,7 @@ public class Line extends AbstractShape implements LWHShape {
 
     public void setEndSupplier(Supplier<Vector3d> endSupplier) {
         this.endSupplier = endSupplier;
+        invalidate();
     }
 
     @Override
@@ -156,6 +154,19 @@ public class Line extends AbstractShape implements LWHShape {
     @Override
     public void setHeight(double height) { }
 
+    @Override
+    protected boolean tracksSuppliers() { return startSupplier != null && endSupplier != null; }
+
+    @Override
+    protected List<Vector3d> getSuppliedPoints() {
+        return List.of(getStart(), getEnd());
+    }
+
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), getStart(), getEnd());
+    }
+
     @Override
     public Shape clone() {
         Line clone;
@@ -0,0 +1,127 @@
+package com.sovdee.shapes.shapes;
+
+import com.sovdee.shapes.sampling.DeduplicationMode;
+import com.sovdee.shapes.sampling.DefaultPointSampler;
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointSampler;
+import com.sovdee.shapes.sampling.PointSink;
+import org.joml.Vector3d;
+
+/**
+ * A shape between two keyframe shapes, such as a small and a large sphere for a pulsing effect.
+ * <p>
+ * Each keyframe is sampled once, with its own sampling settings and transform, and cached by its own sampler.
+ * The morph's points are blended from the keyframes' points by index, see
+ * {@link PointBuffer#interpolate(PointBuffer, PointBuffer, double, PointSink)}, so changing the progress costs
+ * one linear pass instead of generating the shape again. Keyframes with the same kind of shape and settings
+ * correspond best, since their points are generated in the same order.
+ * The morph's own density and style are unused.
+ */
+public class Morph extends AbstractShape {
+
+    private final Shape from;
+    private final Shape to;
+    private double progress;
+
+    // the keyframe states the current geometry was blended from
+    private volatile Keyframe fromKeyframe;
+    private volatile Keyframe toKeyframe;
+
+    public Morph(Shape from, Shape to) {
+        this(from, to, 0);
+    }
+
+    public Morph(Shape from, Shape to, double progress) {
+        super(undeduplicatedSampler());
+        this.from = from;
+        this.to = to;
+        this.progress = Math.clamp(progress, 0, 1);
+    }
+
+    /**
+     * The keyframes are deduplicated already, and blending them only overlaps points at the very ends.
+     */
+    private static PointSampler undeduplicatedSampler() {
+        PointSampler sampler = new DefaultPointSampler();
+        sampler.setDeduplicationMode(DeduplicationMode.NONE);
+        return sampler;
+    }
+
+    @Override
+    public void generateOutline(PointSink points, double density) {
+        // recorded before sampling, so a keyframe changed while sampling leaves the morph stale rather than wrong
+        fromKeyframe = Keyframe.of(from);
+        toKeyframe = Keyframe.of(to);
+        PointBuffer.interpolate(from.getPointSampler().getPointBuffer(from), to.getPointSampler().getPointBuffer(to), progress, points);
+    }
+
+    @Override
+    public long getVersion() {
+        // a keyframe that changes in any way that moves its points changes the morph too
+        Keyframe fromKeyframe = this.fromKeyframe, toKeyframe = this.toKeyframe;
+        if (fromKeyframe != null && (!fromKeyframe.matches(from) || !toKeyframe.matches(to)))
+            invalidate();
+        return super.getVersion();
+    }
+
+    @Override
+    public boolean contains(Vector3d point) {
+        return (progress < 0.5 ? from : to).contains(point);
+    }
+
+    /**
+     * @return the keyframe at progress 0
+     */
+    public Shape getFrom() {
+        return from;
+    }
+
+    /**
+     * @return the keyframe at progress 1
+     */
+    public Shape getTo() {
+        return to;
+    }
+
+    /**
+     * @return how far the morph is from the first keyframe to the second, between 0 and 1
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    public void setProgress(double progress) {
+        progress = Math.clamp(progress, 0, 1);
+        if (progress == this.progress)
+            return;
+        this.progress = progress;
+        invalidate();
+    }
+
+    @Override
+    public Shape clone() {
+        return this.copyTo(new Morph(from.clone(), to.clone(), progress));
+    }
+
+    @Override
+    public String toString() {
+        return "morph from " + from + " to " + to + " at " + progress;
+    }
+
+    /**
+     * The versions of everything a keyframe's points depend on.
+     */
+    private record Keyframe(PointSampler sampler, long settingsVersion, long version, long transformVersion) {
+
+        static Keyframe of(Shape shape) {
+            PointSampler sampler = shape.getPointSampler();
+            return new Keyframe(sampler, sampler.getSettingsVersion(), shape.getVersion(), shape.getTransformVersion());
+        }
+
+        boolean matches(Shape shape) {
+            PointSampler sampler = shape.getPointSampler();
+            return sampler == this.sampler && sampler.getSettingsVersion() == settingsVersion
+                    && shape.getVersion() == version && shape.getTransformVersion() == transformVersion;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.sovdee.shapes.shapes;
+
+import com.sovdee.shapes.sampling.PointSink;
+import com.sovdee.shapes.sampling.SamplingStyle;
+
+/**
+ * Represents a shape whose generation splits into independent partitions, such as the shells of a sphere
+ * or the faces of a polyhedron, which a PointSampler may generate in parallel.
+ * Emitting every partition in index order must produce the same points as the regular generation method.
+ */
+public interface PartitionedShape extends Shape {
+
+    /**
+     * Returns the number of partitions for the given style and density, or 0 if that style is not partitioned.
+     * Called after {@link #beforeSampling(double)}.
+     */
+    int getPartitionCount(SamplingStyle style, double density);
+
+    /**
+     * Generates a single partition. May be called concurrently for different indices.
+     */
+    void generatePartition(SamplingStyle style, int index, PointSink points, double density);
+}
@@ -1,9 +1,10 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
-import java.util.Set;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
@@ -66,12 +67,12 @@ public class Rectangle extends AbstractShape implements LWHShape {
         this.halfLength = Math.abs(length) / 2;
     }
 
-    private Vector3d vectorFromLengthWidth(double length, double width) {
-        return switch (plane) {
-            case XZ -> new Vector3d(length, 0, width);
-            case XY -> new Vector3d(length, width, 0);
-            case YZ -> new Vector3d(0, length, width);
-        };
+    private void addFromLengthWidth(PointSink points, double length, double width) {
+        switch (plane) {
+            case XZ -> points.accept(length + centerOffset.x, centerOffset.y, width + centerOffset.z);
+            case XY -> points.accept(length + centerOffset.x, width + centerOffset.y, centerOffset.z);
+            case YZ -> points.accept(centerOffset.x, length + centerOffset.y, width + centerOffset.z);
+        }
     }
 
     private void calculateSteps(double density) {
@@ -81,36 +82,28 @@ public class Rectangle extends AbstractShape implements LWHShape {
 
     @Override
     public void beforeSampling(double density) {
-        if (cornerASupplier != null && cornerBSupplier != null) {
-            Vector3d a = cornerASupplier.get();
-            Vector3d b = cornerBSupplier.get();
-            setLengthWidth(a, b);
-        }
+        if (cornerASupplier != null && cornerBSupplier != null)
+            setLengthWidth(new Vector3d(), getSampledPoints().get(0));
         calculateSteps(density);
     }
 
     @Override
-    public void afterSampling(Set<Vector3d> points) {
-        points.forEach(vector -> vector.add(centerOffset));
-    }
-
-    @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
+    public void generateOutline(PointSink points, double density) {
         for (double l = -halfLength + widthStep; l < halfLength; l += widthStep) {
-            points.add(vectorFromLengthWidth(l, -halfWidth));
-            points.add(vectorFromLengthWidth(l, halfWidth));
+            addFromLengthWidth(points, l, -halfWidth);
+            addFromLengthWidth(points, l, halfWidth);
         }
         for (double w = -halfWidth; w <= halfWidth; w += lengthStep) {
-            points.add(vectorFromLengthWidth(-halfLength, w));
-            points.add(vectorFromLengthWidth(halfLength, w));
+            addFromLengthWidth(points, -halfLength, w);
+            addFromLengthWidth(points, halfLength, w);
         }
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         for (double w = -halfWidth; w <= halfWidth; w += lengthStep) {
             for (double l = -halfLength; l <= halfLength; l += widthStep) {
-                points.add(vectorFromLengthWidth(l, w));
+                addFromLengthWidth(points, l, w);
             }
         }
     }
@@ -167,6 +160,22 @@ public class Rectangle extends AbstractShape implements LWHShape {
     public Supplier<Vector3d> getCornerASupplier() { return cornerASupplier; }
     public Supplier<Vector3d> getCornerBSupplier() { return cornerBSupplier; }
 
+    @Override
+    protected boolean tracksSuppliers() { return cornerASupplier != null && cornerBSupplier != null; }
+
+    /**
+     * Only the distance between the corners shapes the geometry, so corners moving together don't change it.
+     */
+    @Override
+    protected List<Vector3d> getSuppliedPoints() {
+        return List.of(new Vector3d(cornerBSupplier.get()).sub(cornerASupplier.get()));
+    }
+
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), plane, halfLength, halfWidth, new Vector3d(centerOffset));
+    }
+
     @Override
     public Shape clone() {
         Rectangle rectangle;
@@ -1,14 +1,14 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Quaterniond;
 import org.joml.Vector3d;
 
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.List;
 
-public class RegularPolyhedron extends AbstractShape implements RadialShape, PolyShape {
+public class RegularPolyhedron extends AbstractShape implements RadialShape, PolyShape, PartitionedShape {
 
     private static final Quaterniond[] TETRAHEDRON_FACES = {
             new Quaterniond(1.0, 0.0, 0.0, 0),
@@ -82,44 +82,63 @@ public class RegularPolyhedron extends AbstractShape implements RadialShape, Pol
     }
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
-        points.addAll(switch (faces) {
-            case 4 -> generatePolyhedron(TETRAHEDRON_FACES, radius, density, SamplingStyle.OUTLINE);
-            case 8 -> generatePolyhedron(OCTAHEDRON_FACES, radius, density, SamplingStyle.OUTLINE);
-            case 20 -> generatePolyhedron(ICOSAHEDRON_FACES, radius, density, SamplingStyle.OUTLINE);
-            case 12 -> generatePolyhedron(DODECAHEDRON_FACES, radius, density, SamplingStyle.OUTLINE);
-            default -> new HashSet<>();
-        });
+    public void generateOutline(PointSink points, double density) {
+        generatePolyhedron(points, getFaceRotations(), radius, density, SamplingStyle.OUTLINE);
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
-        points.addAll(switch (faces) {
-            case 4 -> generatePolyhedron(TETRAHEDRON_FACES, radius, density, SamplingStyle.SURFACE);
-            case 8 -> generatePolyhedron(OCTAHEDRON_FACES, radius, density, SamplingStyle.SURFACE);
-            case 20 -> generatePolyhedron(ICOSAHEDRON_FACES, radius, density, SamplingStyle.SURFACE);
-            case 12 -> generatePolyhedron(DODECAHEDRON_FACES, radius, density, SamplingStyle.SURFACE);
-            default -> new HashSet<>();
-        });
+    public void generateSurface(PointSink points, double density) {
+        generatePolyhedron(points, getFaceRotations(), radius, density, SamplingStyle.SURFACE);
     }
 
     @Override
-    public void generateFilled(Set<Vector3d> points, double density) {
+    public void generateFilled(PointSink points, double density) {
         double step = radius / Math.round(radius / density);
-        Quaterniond[] rotations = switch (faces) {
+        Quaterniond[] rotations = getFaceRotations();
+        for (double i = radius; i > 0; i -= step) {
+            generatePolyhedron(points, rotations, i, density, SamplingStyle.SURFACE);
+        }
+    }
+
+    // Filled polyhedra partition into nested shells, others into faces
+
+    @Override
+    public int getPartitionCount(SamplingStyle style, double density) {
+        if (style != SamplingStyle.FILL)
+            return getFaceRotations().length;
+        double step = radius / Math.round(radius / density);
+        int count = 0;
+        for (double i = radius; i > 0; i -= step)
+            count++;
+        return count;
+    }
+
+    @Override
+    public void generatePartition(SamplingStyle style, int index, PointSink points, double density) {
+        Quaterniond[] rotations = getFaceRotations();
+        if (style != SamplingStyle.FILL) {
+            generatePolyhedron(points, new Quaterniond[]{rotations[index]}, radius, density, style);
+            return;
+        }
+        // accumulate the same way as generateFilled, so shells land on identical radii
+        double step = radius / Math.round(radius / density);
+        double shellRadius = radius;
+        for (int i = 0; i < index; i++)
+            shellRadius -= step;
+        generatePolyhedron(points, rotations, shellRadius, density, SamplingStyle.SURFACE);
+    }
+
+    private Quaterniond[] getFaceRotations() {
+        return switch (faces) {
             case 4 -> TETRAHEDRON_FACES;
             case 8 -> OCTAHEDRON_FACES;
             case 12 -> DODECAHEDRON_FACES;
             case 20 -> ICOSAHEDRON_FACES;
             default -> new Quaterniond[0];
         };
-        for (double i = radius; i > 0; i -= step) {
-            points.addAll(generatePolyhedron(rotations, i, density, SamplingStyle.SURFACE));
-        }
     }
 
-    private Set<Vector3d> generatePolyhedron(Quaterniond[] rotations, double radius, double density, SamplingStyle style) {
-        Set<Vector3d> points = new LinkedHashSet<>();
+    private void generatePolyhedron(PointSink points, Quaterniond[] rotations, double radius, double density, SamplingStyle style) {
         int sides = this.faces == 12 ? 5 : 3;
         double sideLength = switch (faces) {
             case 4 -> radius / TETRA_R2SL;
@@ -135,32 +154,33 @@ public class RegularPolyhedron extends AbstractShape implements RadialShape, Pol
             case 20 -> sideLength * ICOSA_INSC;
             default -> 1;
         };
-        Vector3d offset = new Vector3d(0, inscribedRadius, 0);
         double faceRadius = sideLength / (2 * Math.sin(Math.PI / sides));
+        PointBuffer face = new PointBuffer();
+        switch (style) {
+            case OUTLINE -> generateFaceOutline(face, sides, faceRadius, density);
+            case FILL, SURFACE -> generateFaceSurface(face, sides, faceRadius, density);
+        }
+        face.translate(0, inscribedRadius, 0);
+        PointBuffer rotated = new PointBuffer(face.size());
         for (Quaterniond rotation : rotations) {
-            Set<Vector3d> facePoints = new LinkedHashSet<>(switch (style) {
-                case OUTLINE -> generateFaceOutline(sides, faceRadius, density);
-                case FILL, SURFACE -> generateFaceSurface(sides, faceRadius, density);
-            });
-            facePoints.forEach(point -> rotation.transform(point.add(offset)));
-            points.addAll(facePoints);
+            rotated.clear();
+            rotated.addAll(face);
+            rotated.rotate(rotation, 0);
+            rotated.emit(points);
         }
-        return points;
     }
 
-    private Set<Vector3d> generateFaceOutline(int sides, double radius, double density) {
-        return new LinkedHashSet<>(RegularPolygon.calculateRegularPolygon(radius, 2 * Math.PI / sides, density, true));
+    private void generateFaceOutline(PointSink points, int sides, double radius, double density) {
+        RegularPolygon.calculateRegularPolygon(points, radius, 2 * Math.PI / sides, density, true);
     }
 
-    private Set<Vector3d> generateFaceSurface(int sides, double radius, double density) {
-        Set<Vector3d> facePoints = new LinkedHashSet<>();
+    private void generateFaceSurface(PointSink points, int sides, double radius, double density) {
         double apothem = radius * Math.cos(Math.PI / sides);
         double radiusStep = radius / Math.round(apothem / density);
         for (double subRadius = radius; subRadius > 0; subRadius -= radiusStep) {
-            facePoints.addAll(RegularPolygon.calculateRegularPolygon(subRadius, 2 * Math.PI / sides, density, false));
+            RegularPolygon.calculateRegularPolygon(points, subRadius, 2 * Math.PI / sides, density, false);
         }
-        facePoints.add(new Vector3d(0, 0, 0));
-        return facePoints;
+        points.accept(0, 0, 0);
     }
 
     @Override
@@ -182,6 +202,11 @@ public class RegularPolyhedron extends AbstractShape implements RadialShape, Pol
         return point.length() <= inscribedRadius;
     }
 
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), radius, faces);
+    }
+
     @Override
     public Shape clone() {
         return this.copyTo(new RegularPolyhedron(radius, faces));
@@ -1,12 +1,12 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.PointSampler;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Quaterniond;
 import org.joml.Vector3d;
 
-import java.util.Set;
-
 /**
  * Represents a geometric shape. Pure geometry interface — sampling/caching/drawing
  * configuration lives in {@link PointSampler}.
@@ -38,18 +38,46 @@ public interface Shape extends Cloneable {
 
     // --- Change detection ---
 
+    /**
+     * Returns the geometry version, which changes whenever a parameter affecting the local-space points changes.
+     * Versions are unique across all shapes.
+     */
     long getVersion();
 
+    /**
+     * Returns the transform version, which changes whenever the orientation, scale or offset changes.
+     * Versions are unique across all shapes.
+     */
+    long getTransformVersion();
+
+    /**
+     * Returns a key identifying this shape's local-space geometry, used to share sampled points
+     * between identical shapes. Shapes with equal keys must generate identical points for the same
+     * style and density. Returns null if the geometry cannot be shared.
+     */
+    default Object getGeometryKey() { return null; }
+
     // --- Dynamic support ---
 
     boolean isDynamic();
     void setDynamic(boolean dynamic);
 
+    /**
+     * Returns true if the shape's points must be generated again on every draw. This is the case for dynamic shapes,
+     * unless their {@link #getVersion()} changes whenever the values their geometry is read from do, in which case
+     * they are cached like any other shape until those values change.
+     */
+    default boolean resamplesEveryDraw() { return isDynamic(); }
+
     // --- Point generation (density as parameter) ---
 
-    void generateOutline(Set<Vector3d> points, double density);
-    void generateSurface(Set<Vector3d> points, double density);
-    void generateFilled(Set<Vector3d> points, double density);
+    /*
+     * Generators pass local-space points to the sink, in order. They may emit duplicates;
+     * the PointSampler removes them when it buffers the points.
+     */
+    void generateOutline(PointSink points, double density);
+    void generateSurface(PointSink points, double density);
+    void generateFilled(PointSink points, double density);
 
     /**
      * Called by PointSampler before point generation. Override for supplier refresh, step recalc, etc.
@@ -57,9 +85,9 @@ public interface Shape extends Cloneable {
     default void beforeSampling(double density) {}
 
     /**
-     * Called by PointSampler after point generation. Override for centerOffset adjustment, etc.
+     * Called by PointSampler after generating into a buffer. Not called when points are streamed.
      */
-    default void afterSampling(Set<Vector3d> points) {}
+    default void afterSampling(PointBuffer points) {}
 
     /**
      * Computes the density needed to achieve approximately the given number of points.
@@ -1,12 +1,12 @@
 package com.sovdee.shapes.shapes;
 
+import com.sovdee.shapes.sampling.PointSink;
 import com.sovdee.shapes.sampling.SamplingStyle;
 import org.joml.Vector3d;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.List;
 
-public class Sphere extends AbstractShape implements RadialShape {
+public class Sphere extends AbstractShape implements RadialShape, PartitionedShape {
 
     private static final double PHI = Math.PI * (3.0 - Math.sqrt(5.0));
     private static final double[] SPHERE_THETA_COS = new double[4096];
@@ -33,12 +33,11 @@ public class Sphere extends AbstractShape implements RadialShape {
 
     // --- Static calculation methods ---
 
-    private static Set<Vector3d> calculateFibonacciSphere(int pointCount, double radius) {
-        return calculateFibonacciSphere(pointCount, radius, Math.PI);
+    private static void calculateFibonacciSphere(PointSink points, int pointCount, double radius) {
+        calculateFibonacciSphere(points, pointCount, radius, Math.PI);
     }
 
-    private static Set<Vector3d> calculateFibonacciSphere(int pointCount, double radius, double angleCutoff) {
-        Set<Vector3d> points = new LinkedHashSet<>();
+    private static void calculateFibonacciSphere(PointSink points, int pointCount, double radius, double angleCutoff) {
         double y = 1;
         if (angleCutoff > Math.PI) angleCutoff = Math.PI;
         double yLimit = Math.cos(angleCutoff);
@@ -47,48 +46,63 @@ public class Sphere extends AbstractShape implements RadialShape {
         int preCompPoints = Math.min(pointCount, SPHERE_THETA_COS.length);
         for (int i = 0; i < preCompPoints; i++) {
             double r = Math.sqrt(1 - y * y) * radius;
-            points.add(new Vector3d(r * SPHERE_THETA_COS[i], y * radius, r * SPHERE_THETA_SIN[i]));
+            points.accept(r * SPHERE_THETA_COS[i], y * radius, r * SPHERE_THETA_SIN[i]);
             y -= yStep;
             if (y <= yLimit) {
-                return points;
+                return;
             }
         }
         if (pointCount > preCompPoints) {
             for (int i = preCompPoints; i < pointCount; i++) {
                 double r = Math.sqrt(1 - y * y) * radius;
                 double theta = PHI * i;
-                points.add(new Vector3d(r * Math.cos(theta), y * radius, r * Math.sin(theta)));
+                points.accept(r * Math.cos(theta), y * radius, r * Math.sin(theta));
                 y -= yStep;
                 if (y <= yLimit) {
-                    return points;
+                    return;
                 }
             }
         }
-        return points;
     }
 
     // --- Generation methods ---
 
     @Override
-    public void generateOutline(Set<Vector3d> points, double density) {
+    public void generateOutline(PointSink points, double density) {
         this.generateSurface(points, density);
     }
 
     @Override
-    public void generateSurface(Set<Vector3d> points, double density) {
+    public void generateSurface(PointSink points, double density) {
         int pointCount = 4 * (int) (Math.PI * radius * radius / (density * density));
-        points.addAll(calculateFibonacciSphere(pointCount, radius, cutoffAngle));
+        calculateFibonacciSphere(points, pointCount, radius, cutoffAngle);
     }
 
     @Override
-    public void generateFilled(Set<Vector3d> points, double density) {
+    public void generateFilled(PointSink points, double density) {
+        int shells = getPartitionCount(SamplingStyle.FILL, density);
+        for (int i = 0; i < shells; i++) {
+            generatePartition(SamplingStyle.FILL, i, points, density);
+        }
+    }
+
+    // Filled spheres partition into concentric shells
+
+    @Override
+    public int getPartitionCount(SamplingStyle style, double density) {
+        if (style != SamplingStyle.FILL)
+            return 0;
+        int subSpheres = (int) (radius / density) - 1;
+        return Math.max(subSpheres - 1, 0);
+    }
+
+    @Override
+    public void generatePartition(SamplingStyle style, int index, PointSink points, double density) {
         int subSpheres = (int) (radius / density) - 1;
         double radiusStep = radius / subSpheres;
-        for (int i = 1; i < subSpheres; i++) {
-            double subRadius = i * radiusStep;
-            int pointCount = 4 * (int) (Math.PI * subRadius * subRadius / (density * density));
-            points.addAll(calculateFibonacciSphere(pointCount, subRadius, cutoffAngle));
-        }
+        double subRadius = (index + 1) * radiusStep;
+        int pointCount = 4 * (int) (Math.PI * subRadius * subRadius / (density * density));
+        calculateFibonacciSphere(points, pointCount, subRadius, cutoffAngle);
     }
 
     @Override
@@ -114,6 +128,11 @@ public class Sphere extends AbstractShape implements RadialShape {
         invalidate();
     }
 
+    @Override
+    public Object getGeometryKey() {
+        return List.of(getClass(), radius, cutoffAngle);
+    }
+
     @Override
     public Shape clone() {
         return this.copyTo(new Sphere(radius));
@@ -0,0 +1,116 @@
+package com.sovdee.shapes.sampling;
+
+import com.sovdee.shapes.shapes.Circle;
+import com.sovdee.shapes.shapes.Cuboid;
+import com.sovdee.shapes.shapes.Ellipsoid;
+import com.sovdee.shapes.shapes.Line;
+import com.sovdee.shapes.shapes.RegularPolyhedron;
+import com.sovdee.shapes.shapes.Shape;
+import com.sovdee.shapes.shapes.Sphere;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultPointSamplerTest {
+
+    @Test
+    void reusesThePointsWhileNothingChanges() {
+        Sphere sphere = new Sphere(2);
+        PointSampler sampler = sphere.getPointSampler();
+        PointBuffer points = sampler.getPointBuffer(sphere);
+        assertSame(points, sampler.getPointBuffer(sphere));
+    }
+
+    @Test
+    void resamplesWhenTheGeometryChanges() {
+        Sphere sphere = new Sphere(2);
+        PointSampler sampler = sphere.getPointSampler();
+        PointBuffer points = sampler.getPointBuffer(sphere);
+        sphere.setRadius(3);
+        PointBuffer resampled = sampler.getPointBuffer(sphere);
+        assertNotSame(points, resampled);
+        assertEquals(3, resampled.get(0, new Vector3d()).length(), 1e-9);
+    }
+
+    @Test
+    void retransformsWhenTheScaleChanges() {
+        Sphere sphere = new Sphere(2);
+        PointSampler sampler = sphere.getPointSampler();
+        PointBuffer points = sampler.getPointBuffer(sphere);
+        sphere.setScale(2);
+        PointBuffer scaled = sampler.getPointBuffer(sphere);
+        assertNotSame(points, scaled);
+        assertEquals(points.size(), scaled.size());
+        assertEquals(points.getX(0) * 2, scaled.getX(0), 1e-9);
+    }
+
+    @Test
+    void resamplesWhenTheSettingsChange() {
+        Sphere sphere = new Sphere(2);
+        PointSampler sampler = sphere.getPointSampler();
+        PointBuffer points = sampler.getPointBuffer(sphere);
+        sampler.setDensity(sampler.getDensity() / 2);
+        PointBuffer denser = sampler.getPointBuffer(sphere);
+        assertNotSame(points, denser);
+        assertTrue(denser.size() > points.size());
+    }
+
+    @Test
+    void resamplesDynamicShapesOnlyWhenTheirSuppliersMove() {
+        Vector3d end = new Vector3d(4, 0, 0);
+        Supplier<Vector3d> start = Vector3d::new;
+        Line line = new Line(start, () -> new Vector3d(end));
+        PointSampler sampler = line.getPointSampler();
+        PointBuffer points = sampler.getPointBuffer(line);
+        assertSame(points, sampler.getPointBuffer(line));
+        end.set(8, 0, 0);
+        PointBuffer moved = sampler.getPointBuffer(line);
+        assertNotSame(points, moved);
+        assertEquals(8, moved.getX(moved.size() - 1), 1e-9);
+    }
+
+    @Test
+    void parallelSamplingMatchesSequentialSampling() {
+        List<Supplier<Shape>> shapes = List.of(
+                () -> new Circle(3),
+                () -> new Circle(3, 2),
+                () -> new Sphere(3),
+                () -> new Cuboid(2, 3, 4),
+                () -> new Ellipsoid(2, 3, 4),
+                () -> new RegularPolyhedron(3, 4),
+                () -> new RegularPolyhedron(3, 6),
+                () -> new RegularPolyhedron(3, 8),
+                () -> new RegularPolyhedron(3, 12),
+                () -> new RegularPolyhedron(3, 20));
+        for (SamplingStyle style : SamplingStyle.values()) {
+            for (Supplier<Shape> shape : shapes) {
+                PointBuffer sequential = sample(shape.get(), style, false);
+                PointBuffer parallel = sample(shape.get(), style, true);
+                String description = shape.get() + " " + style;
+                assertEquals(sequential.size(), parallel.size(), description);
+                for (int i = 0; i < sequential.size(); i++) {
+                    assertEquals(sequential.getX(i), parallel.getX(i), description + " point " + i);
+                    assertEquals(sequential.getY(i), parallel.getY(i), description + " point " + i);
+                    assertEquals(sequential.getZ(i), parallel.getZ(i), description + " point " + i);
+                }
+            }
+        }
+    }
+
+    private static PointBuffer sample(Shape shape, SamplingStyle style, boolean parallel) {
+        // identical shapes share their points through the global cache, which would hide any difference
+        GeometryCache.shared().clear();
+        PointSampler sampler = shape.getPointSampler();
+        sampler.setStyle(style);
+        sampler.setDensity(0.1);
+        sampler.setParallel(parallel);
+        return sampler.getPointBuffer(shape);
+    }
+}
@@ -0,0 +1,141 @@
+package com.sovdee.shapes.sampling;
+
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PointBufferTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static PointBuffer of(double... coordinates) {
+        PointBuffer buffer = new PointBuffer();
+        for (int i = 0; i < coordinates.length; i += 3)
+            buffer.add(coordinates[i], coordinates[i + 1], coordinates[i + 2]);
+        return buffer;
+    }
+
+    private static void assertPoint(PointBuffer buffer, int index, double x, double y, double z) {
+        assertEquals(x, buffer.getX(index), DELTA, "x of point " + index);
+        assertEquals(y, buffer.getY(index), DELTA, "y of point " + index);
+        assertEquals(z, buffer.getZ(index), DELTA, "z of point " + index);
+    }
+
+    @Test
+    void deduplicateKeepsTheFirstOfEachPointInOrder() {
+        PointBuffer buffer = of(1, 2, 3, 4, 5, 6, 1, 2, 3, 7, 8, 9, 4, 5, 6);
+        buffer.deduplicate();
+        assertEquals(3, buffer.size());
+        assertPoint(buffer, 0, 1, 2, 3);
+        assertPoint(buffer, 1, 4, 5, 6);
+        assertPoint(buffer, 2, 7, 8, 9);
+    }
+
+    @Test
+    void deduplicateTreatsNegativeZeroAsZero() {
+        PointBuffer buffer = of(0, 0, 0, -0.0, 0, -0.0);
+        buffer.deduplicate();
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    void deduplicateKeepsPointsThatOnlyDifferSlightly() {
+        PointBuffer buffer = of(0, 0, 0, 1e-12, 0, 0);
+        buffer.deduplicate();
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void quantizedDeduplicateMergesPointsInTheSameCell() {
+        PointBuffer buffer = of(0, 0, 0, 0.0004, 0, -0.0004, 0.002, 0, 0, 0.0021, 0, 0);
+        buffer.deduplicate(0.001);
+        assertEquals(2, buffer.size());
+        // the first point of each cell is kept unchanged
+        assertPoint(buffer, 0, 0, 0, 0);
+        assertPoint(buffer, 1, 0.002, 0, 0);
+    }
+
+    @Test
+    void quantizedDeduplicateKeepsPointsInNeighbouringCells() {
+        PointBuffer buffer = of(0, 0, 0, 0.001, 0, 0, 0, 0, 0.001, -0.001, 0, 0);
+        buffer.deduplicate(0.001);
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    void transformedRotatesThenScalesThenOffsets() {
+        PointBuffer buffer = of(1, 0, 0, 0, 1, 0);
+        PointBuffer transformed = buffer.transformed(new Quaterniond().rotateY(Math.PI / 2), 2, new Vector3d(1, 1, 1));
+        assertEquals(2, transformed.size());
+        assertPoint(transformed, 0, 1, 1, -1);
+        assertPoint(transformed, 1, 1, 3, 1);
+    }
+
+    @Test
+    void transformedLeavesTheOriginalUnchanged() {
+        PointBuffer buffer = of(1, 2, 3);
+        PointBuffer transformed = buffer.transformed(new Quaterniond().rotateX(1), 3, new Vector3d(5, 5, 5));
+        transformed.set(0, 0, 0, 0);
+        assertPoint(buffer, 0, 1, 2, 3);
+    }
+
+    @Test
+    void interpolateMatchesBuffersOfTheSameSizeByIndex() {
+        PointBuffer from = of(0, 0, 0, 4, 0, 0);
+        PointBuffer to = of(0, 4, 0, 4, 4, 8);
+        PointBuffer result = new PointBuffer();
+        PointBuffer.interpolate(from, to, 0.25, result);
+        assertEquals(2, result.size());
+        assertPoint(result, 0, 0, 1, 0);
+        assertPoint(result, 1, 4, 1, 2);
+    }
+
+    @Test
+    void interpolateReturnsEachBufferAtItsEnd() {
+        PointBuffer from = of(1, 2, 3, 4, 5, 6);
+        PointBuffer to = of(7, 8, 9, 10, 11, 12);
+        PointBuffer start = new PointBuffer(), end = new PointBuffer();
+        PointBuffer.interpolate(from, to, 0, start);
+        PointBuffer.interpolate(from, to, 1, end);
+        for (int i = 0; i < 2; i++) {
+            assertPoint(start, i, from.getX(i), from.getY(i), from.getZ(i));
+            assertPoint(end, i, to.getX(i), to.getY(i), to.getZ(i));
+        }
+    }
+
+    @Test
+    void interpolateKeepsTheLargerSizeAndMatchesProportionally() {
+        PointBuffer from = of(0, 0, 0, 1, 0, 0);
+        PointBuffer to = of(0, 0, 0, 1, 0, 0, 2, 0, 0, 3, 0, 0);
+        PointBuffer result = new PointBuffer();
+        PointBuffer.interpolate(from, to, 0, result);
+        assertEquals(4, result.size());
+        // each point of the smaller buffer covers an equal share of the larger one
+        assertPoint(result, 0, 0, 0, 0);
+        assertPoint(result, 1, 0, 0, 0);
+        assertPoint(result, 2, 1, 0, 0);
+        assertPoint(result, 3, 1, 0, 0);
+    }
+
+    @Test
+    void interpolateWithAnEmptyBufferEmitsTheOther() {
+        PointBuffer points = of(1, 2, 3, 4, 5, 6);
+        PointBuffer result = new PointBuffer();
+        PointBuffer.interpolate(new PointBuffer(), points, 0.5, result);
+        assertEquals(2, result.size());
+        assertPoint(result, 1, 4, 5, 6);
+    }
+
+    @Test
+    void trimToSizeKeepsThePoints() {
+        PointBuffer buffer = new PointBuffer(100);
+        buffer.add(1, 2, 3);
+        buffer.trimToSize();
+        assertEquals(1, buffer.size());
+        assertPoint(buffer, 0, 1, 2, 3);
+        buffer.add(4, 5, 6);
+        assertPoint(buffer, 1, 4, 5, 6);
+    }
+}
@@ -0,0 +1,76 @@
+package com.sovdee.shapes.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointCursorTest {
+
+    private static PointBuffer line(int count) {
+        PointBuffer buffer = new PointBuffer();
+        for (int i = 0; i < count; i++)
+            buffer.add(i, 0, 0);
+        return buffer;
+    }
+
+    @Test
+    void carriesOvershootIntoTheNextSlice() {
+        // 3 per point and 5 per slice: the overshoot of 1 then 2 makes every third slice one point shorter
+        PointCursor cursor = new PointCursor(line(15), 3, 5);
+        int[] expected = {2, 2, 1, 2, 2, 1, 2, 2, 1};
+        for (int count : expected)
+            assertEquals(count, cursor.advance());
+        assertEquals(15, cursor.getPosition());
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    void keepsToTheAverageRateOverManySlices() {
+        PointCursor cursor = new PointCursor(line(1000), 0.7, 1);
+        int slices = 0;
+        while (cursor.hasNext()) {
+            cursor.advance();
+            slices++;
+        }
+        assertEquals(700, slices, 1);
+    }
+
+    @Test
+    void advancesByTheGivenTime() {
+        PointCursor cursor = new PointCursor(line(20), 3, 5);
+        assertEquals(4, cursor.advance(10));
+        // the overshoot of 2 covers this whole slice
+        assertEquals(0, cursor.advance(1));
+        assertEquals(2, cursor.advance(5));
+        assertEquals(6, cursor.getPosition());
+    }
+
+    @Test
+    void stopsAtTheEndOfTheBuffer() {
+        PointCursor cursor = new PointCursor(line(3), 1, 10);
+        assertEquals(3, cursor.advance());
+        assertEquals(0, cursor.advance());
+        assertEquals(3, cursor.getPosition());
+    }
+
+    @Test
+    void nextEmitsTheSliceInOrder() {
+        PointCursor cursor = new PointCursor(line(5), 1, 2);
+        PointBuffer emitted = new PointBuffer();
+        assertTrue(cursor.hasNext());
+        assertEquals(2, cursor.next(emitted));
+        assertEquals(2, cursor.next(emitted));
+        assertEquals(1, cursor.next(emitted));
+        assertEquals(5, emitted.size());
+        for (int i = 0; i < 5; i++)
+            assertEquals(i, emitted.getX(i));
+    }
+
+    @Test
+    void rejectsSlicesWithoutLength() {
+        assertThrows(IllegalArgumentException.class, () -> new PointCursor(line(1), 1, 0));
+    }
+}
@@ -0,0 +1,27 @@
+package com.sovdee.shapes.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointKeySetTest {
+
+    @Test
+    void addsEachTripleOnce() {
+        PointKeySet set = new PointKeySet(1000);
+        for (long i = 0; i < 1000; i++)
+            assertTrue(set.add(i, i * 31, -i));
+        for (long i = 0; i < 1000; i++)
+            assertFalse(set.add(i, i * 31, -i));
+    }
+
+    @Test
+    void distinguishesTriplesWithTheSameValuesInAnotherOrder() {
+        PointKeySet set = new PointKeySet(4);
+        assertTrue(set.add(1, 2, 3));
+        assertTrue(set.add(3, 2, 1));
+        assertTrue(set.add(2, 1, 3));
+        assertFalse(set.add(1, 2, 3));
+    }
+}
@@ -4,6 +4,13 @@ import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAddon;
 import ch.njol.skript.bstats.bukkit.Metrics;
 import ch.njol.skript.util.Version;
+import com.sovdee.shapes.sampling.GeometryCache;
+import com.sovdee.skriptparticles.particles.ParticleBudget;
+import com.sovdee.skriptparticles.particles.ParticleGradient;
+import com.sovdee.skriptparticles.particles.ViewCulling;
+import com.sovdee.skriptparticles.shapes.DrawManager;
+import com.sovdee.skriptparticles.shapes.RenderScheduler;
+import com.sovdee.skriptparticles.util.PlayerIndex;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -80,6 +87,16 @@ public class SkriptParticle extends JavaPlugin {
             return;
         }
         instance = this;
+        saveDefaultConfig();
+        GeometryCache.shared().setMaxPoints(getConfig().getLong("geometry-cache-max-points", GeometryCache.DEFAULT_MAX_POINTS));
+        if (getConfig().isList("level-of-detail-distances"))
+            DrawManager.setLevelOfDetailDistances(getConfig().getDoubleList("level-of-detail-distances"));
+        DrawManager.setAnimationCatchUp(getConfig().getDouble("animation-catch-up", 3));
+        ParticleGradient.setDefaultLookupGridSize(getConfig().getInt("gradient-lookup-grid-size", 0));
+        DrawManager.getEmitter().setCulling(ViewCulling.fromConfig(getConfig().getConfigurationSection("culling")));
+        DrawManager.getEmitter().setBudget(ParticleBudget.fromConfig(getConfig().getConfigurationSection("particle-budget")));
+        PlayerIndex.get().start(this);
+        RenderScheduler.get().start(this, getConfig().getBoolean("virtual-threads", false), getConfig().getInt("render-workers", 0));
         addon = Skript.registerAddon(this);
         addon.setLanguageFileDirectory("lang");
         try {
@@ -95,6 +112,9 @@ public class SkriptParticle extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        RenderScheduler.get().stop();
+        PlayerIndex.get().stop();
+        GeometryCache.shared().clear();
         instance = null;
         addon = null;
     }
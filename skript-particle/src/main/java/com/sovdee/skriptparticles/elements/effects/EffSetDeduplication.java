@@ -0,0 +1,64 @@
+package com.sovdee.skriptparticles.elements.effects;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.util.Kleenean;
+import com.sovdee.shapes.sampling.DeduplicationMode;
+import com.sovdee.shapes.shapes.Shape;
+import org.bukkit.event.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Name("Shape Deduplication Mode")
+@Description({
+        "Controls how duplicate points are removed when a shape is sampled. Exact is the default.",
+        "None keeps every point, which is the fastest but may draw particles on shared edges twice.",
+        "Quantized merges points closer together than the given epsilon (0.0001 by default), " +
+                "which also removes near-duplicates that exact comparison misses."
+})
+@Examples({
+        "set the deduplication mode of {_cube} to none",
+        "set the deduplication mode of {_icosahedron} to quantized with epsilon 0.01"
+})
+@Since("1.4.0")
+public class EffSetDeduplication extends Effect {
+
+    static {
+        Skript.registerEffect(EffSetDeduplication.class,
+                "set the deduplication mode of %shapes% to (none|1:exact|2:quantized [with epsilon %-number%])");
+    }
+
+    private Expression<Shape> shapes;
+    private DeduplicationMode mode;
+    @Nullable
+    private Expression<Number> epsilon;
+
+    @Override
+    public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+        shapes = (Expression<Shape>) expressions[0];
+        epsilon = (Expression<Number>) expressions[1];
+        mode = DeduplicationMode.values()[parseResult.mark];
+        return true;
+    }
+
+    @Override
+    protected void execute(Event event) {
+        @Nullable Number epsilon = this.epsilon == null ? null : this.epsilon.getSingle(event);
+        for (Shape shape : shapes.getArray(event)) {
+            shape.getPointSampler().setDeduplicationMode(mode);
+            if (epsilon != null)
+                shape.getPointSampler().setDeduplicationEpsilon(epsilon.doubleValue());
+        }
+    }
+
+    @Override
+    public String toString(@Nullable Event event, boolean debug) {
+        return "set the deduplication mode of " + shapes.toString(event, debug) + " to " + mode
+                + (epsilon == null ? "" : " with epsilon " + epsilon.toString(event, debug));
+    }
+}
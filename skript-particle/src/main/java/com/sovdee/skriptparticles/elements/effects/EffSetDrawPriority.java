@@ -0,0 +1,57 @@
+package com.sovdee.skriptparticles.elements.effects;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.util.Kleenean;
+import com.sovdee.shapes.shapes.Shape;
+import com.sovdee.skriptparticles.shapes.DrawData;
+import com.sovdee.skriptparticles.shapes.DrawPriority;
+import org.bukkit.event.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Name("Shape Draw Priority")
+@Description({
+        "Sets how important it is that a shape is drawn in full when the particle budget runs low. Normal by default.",
+        "When the particle budget in the config is enabled, low priority shapes may use half of each tick's budget and normal priority shapes 80%, " +
+                "leaving the rest for high priority shapes. Shapes that don't fit are drawn with fewer particles, or skipped for that tick."
+})
+@Examples({
+        "set the draw priority of {_shape} to high",
+        "set the draw priority of {_decorations::*} to low"
+})
+@Since("1.4.0")
+public class EffSetDrawPriority extends Effect {
+
+    static {
+        Skript.registerEffect(EffSetDrawPriority.class,
+                "set [the] draw priority of %shapes% to (0:low|1:normal|2:high)");
+    }
+
+    private Expression<Shape> shapes;
+    private DrawPriority priority;
+
+    @Override
+    public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+        shapes = (Expression<Shape>) expressions[0];
+        priority = DrawPriority.values()[parseResult.mark];
+        return true;
+    }
+
+    @Override
+    protected void execute(Event event) {
+        for (Shape shape : shapes.getArray(event)) {
+            DrawData.of(shape).setPriority(priority);
+        }
+    }
+
+    @Override
+    public String toString(@Nullable Event event, boolean debug) {
+        return "set the draw priority of " + shapes.toString(event, debug) + " to " + priority.name().toLowerCase();
+    }
+}
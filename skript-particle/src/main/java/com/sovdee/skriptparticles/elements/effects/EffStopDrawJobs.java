@@ -0,0 +1,60 @@
+package com.sovdee.skriptparticles.elements.effects;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.util.Kleenean;
+import com.sovdee.skriptparticles.shapes.RenderScheduler;
+import org.bukkit.event.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Name("Stop Draw Jobs")
+@Description({
+        "Stops draw jobs that are currently running, such as shapes drawn for a duration and animations.",
+        "Either stops every job, or only the jobs with the given ids. See the active draw job ids expression."
+})
+@Examples({
+        "stop all draw jobs",
+        "stop draw job with id 3",
+        "stop draw jobs with ids (active draw job ids)"
+})
+@Since("1.4.0")
+public class EffStopDrawJobs extends Effect {
+
+    static {
+        Skript.registerEffect(EffStopDrawJobs.class,
+                "(stop|cancel) all [active] draw jobs",
+                "(stop|cancel) [the] draw job[s] [with id[s]] %numbers%");
+    }
+
+    @Nullable
+    private Expression<Number> ids;
+
+    @Override
+    public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+        if (matchedPattern == 1)
+            ids = (Expression<Number>) expressions[0];
+        return true;
+    }
+
+    @Override
+    protected void execute(Event event) {
+        if (ids == null) {
+            RenderScheduler.get().cancelAll();
+            return;
+        }
+        for (Number id : ids.getArray(event)) {
+            RenderScheduler.get().cancel(id.longValue());
+        }
+    }
+
+    @Override
+    public String toString(@Nullable Event event, boolean debug) {
+        return ids == null ? "stop all draw jobs" : "stop draw jobs " + ids.toString(event, debug);
+    }
+}
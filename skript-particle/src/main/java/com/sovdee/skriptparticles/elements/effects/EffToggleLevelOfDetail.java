@@ -0,0 +1,54 @@
+package com.sovdee.skriptparticles.elements.effects;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.util.Kleenean;
+import com.sovdee.shapes.shapes.Shape;
+import org.bukkit.event.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Name("Toggle Level of Detail")
+@Description({
+        "Enables or disables level of detail for shapes. Disabled by default.",
+        "When enabled, players far away from a shape see it drawn with fewer, more widely spaced particles. " +
+                "The distances can be changed in the config. Animated shapes are always drawn in full detail."
+})
+@Examples({
+        "enable level of detail for {_shape}",
+        "disable level of detail for {_shape}"
+})
+@Since("1.4.0")
+public class EffToggleLevelOfDetail extends Effect {
+
+    static {
+        Skript.registerEffect(EffToggleLevelOfDetail.class, "(enable|1:disable) level of detail for %shapes%");
+    }
+
+    private Expression<Shape> shapes;
+    private boolean enable;
+
+    @Override
+    public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+        shapes = (Expression<Shape>) expressions[0];
+        enable = parseResult.mark == 0;
+        return true;
+    }
+
+    @Override
+    protected void execute(Event event) {
+        for (Shape shape : shapes.getArray(event)) {
+            shape.getPointSampler().setLevelOfDetail(enable);
+        }
+    }
+
+    @Override
+    public String toString(@Nullable Event event, boolean debug) {
+        return (enable ? "enable" : "disable") + " level of detail for " + shapes.toString(event, debug);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sovdee.skriptparticles.elements.effects;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.util.Kleenean;
+import com.sovdee.shapes.shapes.Shape;
+import org.bukkit.event.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Name("Toggle Parallel Sampling")
+@Description({
+        "Enables or disables parallel sampling for shapes. Disabled by default.",
+        "When enabled, large filled spheres, ellipsoids, cylinders and cuboids, and polyhedra are sampled " +
+                "across multiple cores. The resulting points are the same either way."
+})
+@Examples({
+        "enable parallel sampling for {_sphere}",
+        "disable parallel sampling for {_sphere}"
+})
+@Since("1.4.0")
+public class EffToggleParallelSampling extends Effect {
+
+    static {
+        Skript.registerEffect(EffToggleParallelSampling.class, "(enable|1:disable) parallel sampling for %shapes%");
+    }
+
+    private Expression<Shape> shapes;
+    private boolean enable;
+
+    @Override
+    public boolean init(Expression<?>[] expressions, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+        shapes = (Expression<Shape>) expressions[0];
+        enable = parseResult.mark == 0;
+        return true;
+    }
+
+    @Override
+    protected void execute(Event event) {
+        for (Shape shape : shapes.getArray(event)) {
+            shape.getPointSampler().setParallel(enable);
+        }
+    }
+
+    @Override
+    public String toString(@Nullable Event event, boolean debug) {
+        return (enable ? "enable" : "disable") + " parallel sampling for " + shapes.toString(event, debug);
+    }
+}
@@ -0,0 +1,66 @@
+package com.sovdee.skriptparticles.elements.expressions;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.ExpressionType;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.util.Kleenean;
+import com.sovdee.skriptparticles.shapes.RenderJob;
+import com.sovdee.skriptparticles.shapes.RenderScheduler;
+import org.bukkit.event.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+
+@Name("Active Draw Jobs")
+@Description({
+        "Returns the draw jobs that are currently running, such as shapes drawn for a duration and animations, in the order they started.",
+        "Either a description of each job, including its id and how many times it has run, or just the ids, which can be used to stop jobs."
+})
+@Examples({
+        "send all active draw jobs to player",
+        "send \"%size of active draw job ids% shapes are being drawn\" to player"
+})
+@Since("1.4.0")
+public class ExprActiveDrawJobs extends SimpleExpression<Object> {
+
+    static {
+        Skript.registerExpression(ExprActiveDrawJobs.class, Object.class, ExpressionType.SIMPLE, "[all [[of] the]] active draw jobs", "[all [[of] the]] active draw job ids");
+    }
+
+    private boolean ids;
+
+    @Override
+    public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+        ids = matchedPattern == 1;
+        return true;
+    }
+
+    @Override
+    protected Object[] get(Event event) {
+        List<RenderJob> jobs = RenderScheduler.get().getJobs();
+        if (ids)
+            return jobs.stream().map(RenderJob::getId).toArray(Long[]::new);
+        return jobs.stream().map(RenderJob::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public boolean isSingle() {
+        return false;
+    }
+
+    @Override
+    public Class<?> getReturnType() {
+        return ids ? Long.class : String.class;
+    }
+
+    @Override
+    public String toString(@Nullable Event event, boolean debug) {
+        return ids ? "active draw job ids" : "active draw jobs";
+    }
+}
@@ -0,0 +1,73 @@
+package com.sovdee.skriptparticles.elements.expressions;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.ExpressionType;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.util.Kleenean;
+import com.sovdee.skriptparticles.particles.ParticleBudget;
+import com.sovdee.skriptparticles.shapes.DrawManager;
+import org.bukkit.event.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+@Name("Particle Budget Counters")
+@Description({
+        "How often the particle budget has limited drawing since the server started. Returns nothing if the budget is disabled in the config.",
+        "Sent particles is the number of particles the budget let through. Thinned frames is the number of times a shape was sent to a player " +
+                "with fewer particles to fit the budget, and skipped frames is the number of times it wasn't sent at all because the budget was used up."
+})
+@Examples({
+        "send \"Thinned: %thinned frames of the particle budget%, skipped: %skipped frames of the particle budget%\" to player"
+})
+@Since("1.4.0")
+public class ExprParticleBudgetCounters extends SimpleExpression<Long> {
+
+    static {
+        Skript.registerExpression(ExprParticleBudgetCounters.class, Long.class, ExpressionType.SIMPLE,
+                "[the] (0:sent particles|1:thinned frames|2:skipped frames) of the particle budget");
+    }
+
+    private int counter;
+
+    @Override
+    public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+        counter = parseResult.mark;
+        return true;
+    }
+
+    @Override
+    protected Long @Nullable [] get(Event event) {
+        @Nullable ParticleBudget budget = DrawManager.getEmitter().getBudget();
+        if (budget == null)
+            return new Long[0];
+        return new Long[]{switch (counter) {
+            case 1 -> budget.getThinned();
+            case 2 -> budget.getSkipped();
+            default -> budget.getSent();
+        }};
+    }
+
+    @Override
+    public boolean isSingle() {
+        return true;
+    }
+
+    @Override
+    public Class<? extends Long> getReturnType() {
+        return Long.class;
+    }
+
+    @Override
+    public String toString(@Nullable Event event, boolean debug) {
+        return switch (counter) {
+            case 1 -> "thinned frames";
+            case 2 -> "skipped frames";
+            default -> "sent particles";
+        } + " of the particle budget";
+    }
+}
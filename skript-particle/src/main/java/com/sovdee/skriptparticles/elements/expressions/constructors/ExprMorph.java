@@ -0,0 +1,77 @@
+package com.sovdee.skriptparticles.elements.expressions.constructors;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.ExpressionType;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.util.Kleenean;
+import com.sovdee.shapes.shapes.Morph;
+import com.sovdee.shapes.shapes.Shape;
+import com.sovdee.skriptparticles.shapes.DrawData;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+@Name("Particle Morph")
+@Description({
+        "Creates a shape between two other shapes, starting at the first. Set its morph progress to move it towards the second.",
+        "Both shapes are copied and sampled once, and the morph's points are blended from theirs, " +
+                "so animating the progress is much cheaper than creating a new shape every tick.",
+        "Shapes of the same kind with the same particle density and style blend most smoothly, since their points line up. " +
+                "The morph's own particle density and style are unused; set them on the shapes before creating the morph."
+})
+@Examples({
+        "set {_shape} to morph from sphere with radius 1 to sphere with radius 5",
+        "set {_shape} to morph between circle of radius 2 and regular hexagon with radius 2"
+})
+@Since("1.4.0")
+public class ExprMorph extends SimpleExpression<Shape> {
+
+    static {
+        Skript.registerExpression(ExprMorph.class, Shape.class, ExpressionType.COMBINED, "[a] morph (from|between) %shape% (to|and) %shape%");
+    }
+
+    private Expression<Shape> from;
+    private Expression<Shape> to;
+
+    @Override
+    public boolean init(Expression<?>[] exprs, int matchedPattern, @NotNull Kleenean isDelayed, @NotNull ParseResult parseResult) {
+        from = (Expression<Shape>) exprs[0];
+        to = (Expression<Shape>) exprs[1];
+        return true;
+    }
+
+    @Override
+    protected Shape[] get(@NotNull Event event) {
+        Shape from = this.from.getSingle(event);
+        Shape to = this.to.getSingle(event);
+        if (from == null || to == null)
+            return null;
+
+        Morph shape = new Morph(from.clone(), to.clone());
+        shape.getPointSampler().setDrawContext(new DrawData());
+        return new Shape[]{shape};
+    }
+
+    @Override
+    public boolean isSingle() {
+        return true;
+    }
+
+    @Override
+    @NotNull
+    public Class<? extends Shape> getReturnType() {
+        return Shape.class;
+    }
+
+    @Override
+    @NotNull
+    public String toString(@Nullable Event event, boolean debug) {
+        return "morph from " + from.toString(event, debug) + " to " + to.toString(event, debug);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sovdee.skriptparticles.elements.expressions.properties;
+
+import ch.njol.skript.classes.Changer.ChangeMode;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.expressions.base.SimplePropertyExpression;
+import com.sovdee.shapes.shapes.Morph;
+import com.sovdee.shapes.shapes.Shape;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+
+@Name("Morph Progress")
+@Description({
+        "Gets or sets how far a morph is from its first shape to its second, from 0 to 1.",
+        "Changing the progress blends the points of the two shapes without generating either of them again, " +
+                "so it's cheap to change every tick. Values outside 0 to 1 are clamped. Delete or reset will set it to 0."
+})
+@Examples({
+        "set {_morph} to morph from sphere with radius 1 to sphere with radius 3",
+        "loop 20 times:",
+        "\tset morph progress of {_morph} to loop-number / 20",
+        "\tdraw the shape {_morph} at player",
+        "\twait 1 tick"
+})
+@Since("1.4.0")
+public class ExprMorphProgress extends SimplePropertyExpression<Shape, Number> {
+
+    static {
+        register(ExprMorphProgress.class, Number.class, "morph progress", "shapes");
+    }
+
+    @Override
+    @Nullable
+    public Number convert(Shape shape) {
+        if (shape instanceof Morph morph)
+            return morph.getProgress();
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public Class<?>[] acceptChange(ChangeMode mode) {
+        return switch (mode) {
+            case SET, DELETE, ADD, REMOVE, RESET -> new Class[]{Number.class};
+            default -> new Class[0];
+        };
+    }
+
+    @Override
+    public void change(Event event, Object @Nullable [] delta, ChangeMode mode) {
+        Shape[] shapes = getExpr().getArray(event);
+        if (delta == null && mode != ChangeMode.DELETE && mode != ChangeMode.RESET) return;
+        double deltaValue = (delta == null) ? 0 : ((Number) delta[0]).doubleValue();
+        switch (mode) {
+            case REMOVE:
+                deltaValue = -deltaValue;
+            case ADD:
+                for (Shape shape : shapes) {
+                    if (shape instanceof Morph morph)
+                        morph.setProgress(morph.getProgress() + deltaValue);
+                }
+                break;
+            case DELETE:
+            case RESET:
+            case SET:
+                for (Shape shape : shapes) {
+                    if (shape instanceof Morph morph)
+                        morph.setProgress(deltaValue);
+                }
+                break;
+        }
+    }
+
+    @Override
+    public Class<? extends Number> getReturnType() {
+        return Number.class;
+    }
+
+    @Override
+    protected String getPropertyName() {
+        return "morph progress";
+    }
+
+}
@@ -16,15 +16,16 @@ import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
 import com.sovdee.shapes.shapes.Shape;
 import com.sovdee.skriptparticles.SkriptParticle;
+import com.sovdee.skriptparticles.shapes.DrawData;
 import com.sovdee.skriptparticles.shapes.DrawManager;
+import com.sovdee.skriptparticles.shapes.DrawPriority;
+import com.sovdee.skriptparticles.shapes.RenderScheduler;
 import com.sovdee.skriptparticles.util.DynamicLocation;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -94,12 +95,8 @@ public abstract class DrawShapeEffectSection extends EffectSection {
 
         Delay.addDelayedEvent(event);
 
-        Collection<Player> recipients = new ArrayList<>();
-        if (players != null) {
-            recipients.addAll(List.of(players.getArray(event)));
-        } else {
-            recipients.addAll(Bukkit.getOnlinePlayers());
-        }
+        // without explicit players, each frame is sent to the players near it at the time
+        @Nullable Collection<Player> recipients = players == null ? null : List.of(players.getArray(event));
 
         @Nullable Object localVars = Variables.copyLocalVariables(event);
 
@@ -149,26 +146,36 @@ public abstract class DrawShapeEffectSection extends EffectSection {
         return getNext();
     }
 
-    protected void setupAsync(Event event, Collection<DynamicLocation> locations, Collection<Shape> shapes, Collection<Player> recipients) {
-        BukkitRunnable runnable = new BukkitRunnable() {
-            @Override
-            public void run() {
-                executeAsync(locations, shapes, recipients);
-            }
-        };
-        runnable.runTaskAsynchronously(Skript.getInstance());
+    protected void setupAsync(Event event, Collection<DynamicLocation> locations, Collection<Shape> shapes, @Nullable Collection<Player> recipients) {
+        RenderScheduler.get().submit(toString(event, false), priorityOf(shapes), 1, 1, () -> executeAsync(locations, shapes, recipients));
     }
 
-    protected void executeSync(Event event, Collection<DynamicLocation> locations, @Nullable Consumer<Shape> consumer, Collection<Player> recipients) {
+    /**
+     * @return the highest draw priority of the shapes
+     */
+    protected static DrawPriority priorityOf(Collection<Shape> shapes) {
+        DrawPriority priority = DrawPriority.LOW;
+        for (Shape shape : shapes) {
+            DrawPriority shapePriority = DrawData.of(shape).getPriority();
+            if (shapePriority.compareTo(priority) > 0)
+                priority = shapePriority;
+        }
+        return priority;
+    }
+
+    protected void executeSync(Event event, Collection<DynamicLocation> locations, @Nullable Consumer<Shape> consumer, @Nullable Collection<Player> recipients) {
         try {
+            if (consumer == null) {
+                // without a section to run for each copy, one copy of each shape can be drawn at every location
+                List<DynamicLocation> anchors = List.copyOf(locations);
+                for (Shape shape : shapes.getArray(event)) {
+                    DrawManager.drawInstanced(shape.clone(), anchors, null, recipients);
+                }
+                return;
+            }
             for (DynamicLocation dynamicLocation : locations) {
                 for (Shape shape : shapes.getArray(event)) {
-                    Shape clone = shape.clone();
-                    if (consumer != null) {
-                        DrawManager.drawWithConsumer(clone, dynamicLocation, consumer, recipients);
-                    } else {
-                        DrawManager.draw(clone, dynamicLocation, recipients);
-                    }
+                    DrawManager.drawWithConsumer(shape.clone(), dynamicLocation, consumer, recipients);
                 }
             }
         } catch (IllegalArgumentException exception) {
@@ -180,12 +187,28 @@ public abstract class DrawShapeEffectSection extends EffectSection {
         }
     }
 
-    protected void executeAsync(Collection<DynamicLocation> locations, Collection<Shape> shapes, Collection<Player> recipients) {
+    protected void executeAsync(Collection<DynamicLocation> locations, Collection<Shape> shapes, @Nullable Collection<Player> recipients) {
+        executeAsync(prepare(locations, shapes), recipients);
+    }
+
+    /**
+     * Makes a copy of every shape, to be drawn at every location. A draw job that runs more than once keeps its copies
+     * for its whole duration, so their sampled points stay cached between runs instead of being sampled again.
+     */
+    protected static List<PreparedDraw> prepare(Collection<DynamicLocation> locations, Collection<Shape> shapes) {
+        List<DynamicLocation> anchors = List.copyOf(locations);
+        List<PreparedDraw> draws = new ArrayList<>(shapes.size());
+        for (Shape shape : shapes) {
+            draws.add(new PreparedDraw(anchors, shape.clone()));
+        }
+        return draws;
+    }
+
+    protected void executeAsync(List<PreparedDraw> draws, @Nullable Collection<Player> recipients) {
         try {
-            for (DynamicLocation dynamicLocation : locations) {
-                for (Shape shape : shapes) {
-                    DrawManager.draw(shape.clone(), dynamicLocation, recipients);
-                }
+            for (PreparedDraw draw : draws) {
+                // sampled once, then drawn at each location
+                DrawManager.drawInstanced(draw.shape(), draw.locations(), null, recipients);
             }
         } catch (IllegalArgumentException exception) {
             SkriptParticle.severe("Unable to draw shape[s]! Please check that your particles are valid!");
@@ -196,6 +219,11 @@ public abstract class DrawShapeEffectSection extends EffectSection {
         }
     }
 
+    /**
+     * A shape to draw at some locations, owned by a single draw job.
+     */
+    protected record PreparedDraw(List<DynamicLocation> locations, Shape shape) {}
+
     public static class DrawEvent extends Event {
         private final Shape shape;
 
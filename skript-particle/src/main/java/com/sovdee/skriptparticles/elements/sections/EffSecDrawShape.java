@@ -12,15 +12,15 @@ import ch.njol.skript.util.Timespan;
 import ch.njol.skript.util.Timespan.TimePeriod;
 import ch.njol.util.Kleenean;
 import com.sovdee.shapes.shapes.Shape;
+import com.sovdee.skriptparticles.shapes.RenderScheduler;
 import com.sovdee.skriptparticles.util.DynamicLocation;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Collection;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.List;
 
 @Name("Draw Shape")
 @Description({
@@ -76,7 +76,7 @@ public class EffSecDrawShape extends DrawShapeEffectSection {
     }
 
     @Override
-    protected void setupAsync(Event event, Collection<DynamicLocation> locations, Collection<Shape> shapes, Collection<Player> recipients) {
+    protected void setupAsync(Event event, Collection<DynamicLocation> locations, Collection<Shape> shapes, @Nullable Collection<Player> recipients) {
         long period, iterations;
         if (this.duration == null) {
             period = 1;
@@ -89,17 +89,9 @@ public class EffSecDrawShape extends DrawShapeEffectSection {
             period = Math.max(delay.getAs(TimePeriod.TICK), 1);
             iterations = Math.max(duration.getAs(TimePeriod.TICK) / period, 1);
         }
-        AtomicLong currentIteration = new AtomicLong(0);
-        BukkitRunnable runnable = new BukkitRunnable() {
-            @Override
-            public void run() {
-                executeAsync(locations, shapes, recipients);
-                if (currentIteration.incrementAndGet() >= iterations) {
-                    this.cancel();
-                }
-            }
-        };
-        runnable.runTaskTimerAsynchronously(Skript.getInstance(), 0, period);
+        // the same copies are drawn every run, so their points are only sampled again if they change
+        List<PreparedDraw> draws = prepare(locations, shapes);
+        RenderScheduler.get().submit(toString(event, false), priorityOf(shapes), period, iterations, () -> executeAsync(draws, recipients));
     }
 
     @Override
@@ -47,12 +47,12 @@ public class EffSecDrawShapeAnimation extends DrawShapeEffectSection {
      * This method should not be called for this section.
      */
     @Override
-    protected void executeSync(Event event, Collection<DynamicLocation> locations, @Nullable Consumer<Shape> consumer, Collection<Player> recipients) {
+    protected void executeSync(Event event, Collection<DynamicLocation> locations, @Nullable Consumer<Shape> consumer, @Nullable Collection<Player> recipients) {
         // intentionally empty
     }
 
     @Override
-    protected void setupAsync(Event event, Collection<DynamicLocation> locations, Collection<Shape> shapes, Collection<Player> recipients) {
+    protected void setupAsync(Event event, Collection<DynamicLocation> locations, Collection<Shape> shapes, @Nullable Collection<Player> recipients) {
         Timespan duration = this.duration.getOptionalSingle(event).orElse(new Timespan(TimePeriod.TICK, 0));
         long milliseconds = duration.getAs(TimePeriod.MILLISECOND);
         for (Shape shape : shapes) {
@@ -1,7 +1,7 @@
 package com.sovdee.skriptparticles.particles;
 
+import com.sovdee.shapes.sampling.PointBuffer;
 import com.sovdee.shapes.shapes.Shape;
-import com.sovdee.skriptparticles.shapes.DrawData;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -11,7 +11,10 @@ import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.bukkit.particles.particleeffects.ParticleEffect;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 public class Particle extends ParticleEffect {
 
@@ -19,6 +22,8 @@ public class Particle extends ParticleEffect {
     private @Nullable ParticleGradient gradient;
     private @Nullable Shape parent;
     private boolean override = false;
+    // keyed weakly by buffer, so attributes are dropped along with the buffers they describe
+    private final Map<PointBuffer, CachedAttributes> attributes = Collections.synchronizedMap(new WeakHashMap<>());
 
     public static Particle of(ParticleEffect effect) {
         org.bukkit.Particle effectParticle = effect.particle();
@@ -48,22 +53,62 @@ public class Particle extends ParticleEffect {
     }
 
     public void spawn(Vector delta) {
-        if (parent == null) return;
-        DrawData dd = DrawData.of(parent);
-        if (dd.getLastLocation() == null) return;
-        if (motion != null) {
-            Vector yAxis = dd.getLastOrientation().transform(new Vector(0, 1, 0));
-            Vector motionVector = motion.getMotionVector(yAxis, delta);
-            this.offset(motionVector.getX(), motionVector.getY(), motionVector.getZ());
-            this.count(0);
-        }
-        if (gradient != null) {
-            color(gradient.calculateColour(delta));
-        }
-        location(dd.getLastLocation().getLocation().add(delta));
-        super.spawn();
+        @Nullable RenderFrame frame = RenderFrame.of(parent);
+        if (frame == null) return;
+        spawn(frame, delta.getX(), delta.getY(), delta.getZ());
+    }
+
+    /**
+     * Spawns this particle at an offset from the frame's anchor, with its motion and gradient applied.
+     * The particle itself is not modified. To spawn many points, use a {@link ParticleEmitter}.
+     *
+     * @param frame the frame being drawn
+     * @param x the x offset from the anchor
+     * @param y the y offset from the anchor
+     * @param z the z offset from the anchor
+     */
+    public void spawn(RenderFrame frame, double x, double y, double z) {
+        PointBuffer point = new PointBuffer(1);
+        point.add(x, y, z);
+        PointAttributes attributes = PointAttributes.compute(this, frame, point);
+        Particle copy = this.clone()
+                .count(attributes.getCount(0))
+                .offset(attributes.getOffsetX(0), attributes.getOffsetY(0), attributes.getOffsetZ(0));
+        copy.data(attributes.getData(0));
+        copy.location(frame.getWorld(), frame.getX() + x, frame.getY() + y, frame.getZ() + z).spawn();
     }
 
+    /**
+     * Gets the particle parameters of every point in a buffer, with this particle's motion and gradient applied.
+     * They are cached per buffer until this particle or the frame's orientation changes, so buffers are expected
+     * not to change once used, as with the ones cached by point samplers.
+     *
+     * @param frame the frame being drawn
+     * @param points the points, relative to the anchor
+     * @return the attributes, indexed like the buffer
+     */
+    public PointAttributes getAttributes(RenderFrame frame, PointBuffer points) {
+        AttributeKey key = new AttributeKey(this.particle(), this.count(), this.offsetX(), this.offsetY(), this.offsetZ(),
+                this.data(), motion, gradient == null ? null : gradient.getColourField(points, frame.getOrientation()), points.size(),
+                motion == null ? null : frame.getYAxis());
+        @Nullable CachedAttributes cached = attributes.get(points);
+        if (cached != null && cached.key.equals(key))
+            return cached.attributes;
+        PointAttributes computed = PointAttributes.compute(this, frame, points);
+        attributes.put(points, new CachedAttributes(key, computed));
+        return computed;
+    }
+
+    /**
+     * Everything a buffer's attributes depend on besides its points.
+     * Gradient colours are compared by identity, since the gradient only makes a new array when they change.
+     */
+    private record AttributeKey(org.bukkit.Particle particle, int count, double offsetX, double offsetY, double offsetZ,
+                                @Nullable Object data, @Nullable ParticleMotion motion, int @Nullable [] colours,
+                                int size, @Nullable Vector axis) {}
+
+    private record CachedAttributes(AttributeKey key, PointAttributes attributes) {}
+
     @Nullable
     public ParticleMotion motion() {
         return motion;
@@ -0,0 +1,133 @@
+package com.sovdee.skriptparticles.particles;
+
+import com.sovdee.skriptparticles.shapes.DrawPriority;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Limits how many particles are sent each tick, in total and to each player.
+ * <p>
+ * Every frame sent to a player asks the budget how much of it may be sent. Frames that fit are sent in full. Frames
+ * that don't are thinned, sending only every n-th point, and once nothing is left for them they are skipped for the
+ * rest of the tick. Each {@link DrawPriority} may only use its share of the budget, so lower priority shapes give way
+ * first. The budget starts over every server tick.
+ */
+public class ParticleBudget {
+
+    private final int particlesPerTick;
+    private final int particlesPerPlayerPerTick;
+
+    private int tick = Integer.MIN_VALUE;
+    private int spent;
+    private final Map<UUID, Integer> spentByPlayer = new HashMap<>();
+
+    private long sent;
+    private long thinned;
+    private long skipped;
+
+    /**
+     * @param particlesPerTick the number of particles that may be sent each tick, or 0 for no limit
+     * @param particlesPerPlayerPerTick the number of particles each player may be sent each tick, or 0 for no limit
+     */
+    public ParticleBudget(int particlesPerTick, int particlesPerPlayerPerTick) {
+        this.particlesPerTick = particlesPerTick;
+        this.particlesPerPlayerPerTick = particlesPerPlayerPerTick;
+    }
+
+    /**
+     * Reads budget settings from a config section.
+     *
+     * @return the budget, or null if the section is missing or the budget is disabled
+     */
+    @Nullable
+    public static ParticleBudget fromConfig(@Nullable ConfigurationSection section) {
+        if (section == null || !section.getBoolean("enabled", false))
+            return null;
+        return new ParticleBudget(
+                section.getInt("particles-per-tick", 20000),
+                section.getInt("particles-per-player-per-tick", 2000));
+    }
+
+    /**
+     * Claims budget for sending a frame to a player.
+     *
+     * @param player the player the frame is for
+     * @param points the number of points in the frame
+     * @param priority the priority of the shape being drawn
+     * @return the step between the points that may be sent, 1 to send every point, or 0 to send none
+     */
+    public synchronized int admit(Player player, int points, DrawPriority priority) {
+        if (points <= 0)
+            return 1;
+        int currentTick = Bukkit.getCurrentTick();
+        if (currentTick != tick) {
+            tick = currentTick;
+            spent = 0;
+            spentByPlayer.clear();
+        }
+
+        UUID uuid = player.getUniqueId();
+        int playerSpent = spentByPlayer.getOrDefault(uuid, 0);
+        int available = Math.min(available(particlesPerTick, spent, priority), available(particlesPerPlayerPerTick, playerSpent, priority));
+        if (available <= 0) {
+            skipped++;
+            return 0;
+        }
+
+        int step = points <= available ? 1 : Math.ceilDiv(points, available);
+        if (step > 1)
+            thinned++;
+        int count = Math.ceilDiv(points, step);
+        spent += count;
+        spentByPlayer.put(uuid, playerSpent + count);
+        sent += count;
+        return step;
+    }
+
+    private static int available(int limit, int spent, DrawPriority priority) {
+        if (limit <= 0)
+            return Integer.MAX_VALUE;
+        return (int) (limit * priority.getBudgetShare()) - spent;
+    }
+
+    public int getParticlesPerTick() {
+        return particlesPerTick;
+    }
+
+    public int getParticlesPerPlayerPerTick() {
+        return particlesPerPlayerPerTick;
+    }
+
+    /**
+     * @return the number of particles the budget has let through
+     */
+    public synchronized long getSent() {
+        return sent;
+    }
+
+    /**
+     * @return the number of frames that were thinned to fit the budget
+     */
+    public synchronized long getThinned() {
+        return thinned;
+    }
+
+    /**
+     * @return the number of frames that were skipped because the budget was used up
+     */
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    public synchronized void resetCounters() {
+        sent = 0;
+        thinned = 0;
+        skipped = 0;
+    }
+}
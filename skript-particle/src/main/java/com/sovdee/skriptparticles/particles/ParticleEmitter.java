@@ -0,0 +1,244 @@
+package com.sovdee.skriptparticles.particles;
+
+import com.sovdee.shapes.sampling.PointBuffer;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Emits a whole frame of points to each recipient at once.
+ * <p>
+ * The particle's per-point parameters (motion and gradient colour) come from its cached {@link PointAttributes}, and every
+ * recipient is sent all points in one loop through a {@link ParticleSink}. Recipients in another world, or who
+ * cannot see the particle's source, are skipped, and so are points beyond the distance the client renders particles at,
+ * as the server does for particles spawned in the world. With {@link ViewCulling} set, its view distances are used
+ * instead, and points outside a recipient's view cone are skipped too.
+ * With a {@link ParticleBudget} set, frames that don't fit in the budget are thinned or skipped.
+ */
+public class ParticleEmitter {
+
+    private final ParticleSink sink;
+    private volatile @Nullable ViewCulling culling;
+    private volatile @Nullable ParticleBudget budget;
+
+    public ParticleEmitter(ParticleSink sink) {
+        this.sink = sink;
+    }
+
+    public ParticleSink getSink() {
+        return sink;
+    }
+
+    @Nullable
+    public ViewCulling getCulling() {
+        return culling;
+    }
+
+    /**
+     * @param culling the culling settings, or null to only skip points beyond the default view distances
+     */
+    public void setCulling(@Nullable ViewCulling culling) {
+        this.culling = culling;
+    }
+
+    @Nullable
+    public ParticleBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * @param budget the particle budget, or null to send particles without limit
+     */
+    public void setBudget(@Nullable ParticleBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Emits the particle at every point, relative to the frame's anchor.
+     *
+     * @param particle the particle to emit
+     * @param frame the frame being drawn
+     * @param points the points, relative to the anchor
+     * @param recipients the players to send the particles to
+     * @throws IllegalArgumentException if the particle's data does not suit its type
+     */
+    public void emit(Particle particle, RenderFrame frame, PointBuffer points, Collection<Player> recipients) {
+        emit(particle, frame, points, 0, points.size(), recipients);
+    }
+
+    /**
+     * Emits the particle at the points in a range of the buffer, relative to the frame's anchor.
+     *
+     * @param particle the particle to emit
+     * @param frame the frame being drawn
+     * @param points the points, relative to the anchor
+     * @param from the index of the first point to emit
+     * @param to the index after the last point to emit
+     * @param recipients the players to send the particles to
+     * @throws IllegalArgumentException if the particle's data does not suit its type
+     */
+    public void emit(Particle particle, RenderFrame frame, PointBuffer points, int from, int to, Collection<Player> recipients) {
+        @Nullable World world = frame.getWorld();
+        if (world == null || from >= to || recipients.isEmpty())
+            return;
+
+        Batch batch = new Batch(particle, frame, points, from, to);
+        @Nullable Player source = particle.source();
+        @Nullable ViewCulling culling = this.culling;
+        @Nullable ParticleBudget budget = this.budget;
+        // the view distances always apply, since sending particles the client won't render only wastes bandwidth
+        ViewCulling distances = culling != null ? culling : ViewCulling.DEFAULT;
+        double fieldOfView = culling != null ? culling.fieldOfView() : 0;
+        double halfFieldOfViewCosine = culling != null ? culling.halfFieldOfViewCosine() : -1;
+        int pointCullingThreshold = culling != null ? culling.pointCullingThreshold() : 0;
+        Bounds bounds = new Bounds(frame, points, from, to);
+
+        for (Player player : recipients) {
+            if (!world.equals(player.getWorld()) || (source != null && !player.canSee(source)))
+                continue;
+            double range = particle.force() ? distances.forcedViewDistance() : distances.viewDistance();
+            Location eye = player.getEyeLocation();
+            Visibility visibility = bounds.visibility(eye, range, fieldOfView);
+            if (visibility == Visibility.HIDDEN)
+                continue;
+            // budget is claimed for the whole range, so partly culled frames are counted generously
+            int step = admit(budget, player, to - from, frame);
+            if (step == 0)
+                continue;
+            if (visibility == Visibility.PARTIAL && to - from >= pointCullingThreshold) {
+                batch.sendVisible(sink, player, eye, range, halfFieldOfViewCosine, step);
+            } else {
+                batch.sendAll(sink, player, step);
+            }
+        }
+    }
+
+    private static int admit(@Nullable ParticleBudget budget, Player player, int points, RenderFrame frame) {
+        return budget == null ? 1 : budget.admit(player, points, frame.getPriority());
+    }
+
+    private enum Visibility {
+        HIDDEN, PARTIAL, VISIBLE
+    }
+
+    /**
+     * The particle parameters and world positions of one frame.
+     */
+    private static final class Batch {
+
+        private final org.bukkit.Particle type;
+        private final double extra;
+        private final boolean force;
+        private final PointBuffer points;
+        private final PointAttributes attributes;
+        private final int from, to;
+        private final double x, y, z;
+
+        Batch(Particle particle, RenderFrame frame, PointBuffer points, int from, int to) {
+            this.type = particle.particle();
+            this.extra = particle.extra();
+            this.force = particle.force();
+            this.points = points;
+            this.attributes = particle.getAttributes(frame, points);
+            this.from = from;
+            this.to = to;
+            this.x = frame.getX();
+            this.y = frame.getY();
+            this.z = frame.getZ();
+        }
+
+        /**
+         * Sends every step-th point.
+         */
+        void sendAll(ParticleSink sink, Player player, int step) {
+            for (int i = from; i < to; i += step)
+                send(sink, player, i);
+        }
+
+        /**
+         * Sends only those of every step-th point within range of the player's eyes and inside their view cone.
+         */
+        void sendVisible(ParticleSink sink, Player player, Location eye, double range, double halfFieldOfViewCosine, int step) {
+            Vector look = eye.getDirection();
+            double rangeSquared = range * range;
+            double nearSquared = ViewCulling.NEAR_DISTANCE * ViewCulling.NEAR_DISTANCE;
+            for (int i = from; i < to; i += step) {
+                double dx = x + points.getX(i) - eye.getX();
+                double dy = y + points.getY(i) - eye.getY();
+                double dz = z + points.getZ(i) - eye.getZ();
+                double distanceSquared = dx * dx + dy * dy + dz * dz;
+                if (distanceSquared > rangeSquared)
+                    continue;
+                if (halfFieldOfViewCosine > -1 && distanceSquared > nearSquared
+                        && dx * look.getX() + dy * look.getY() + dz * look.getZ() < halfFieldOfViewCosine * Math.sqrt(distanceSquared))
+                    continue;
+                send(sink, player, i);
+            }
+        }
+
+        private void send(ParticleSink sink, Player player, int i) {
+            sink.spawn(player, type, x + points.getX(i), y + points.getY(i), z + points.getZ(i), attributes.getCount(i),
+                    attributes.getOffsetX(i), attributes.getOffsetY(i), attributes.getOffsetZ(i), extra, attributes.getData(i), force);
+        }
+    }
+
+    /**
+     * A sphere in world space enclosing every point of a frame.
+     */
+    private static final class Bounds {
+
+        private final double centerX, centerY, centerZ;
+        private final double radius;
+
+        Bounds(RenderFrame frame, PointBuffer points, int from, int to) {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+            for (int i = from; i < to; i++) {
+                minX = Math.min(minX, points.getX(i));
+                minY = Math.min(minY, points.getY(i));
+                minZ = Math.min(minZ, points.getZ(i));
+                maxX = Math.max(maxX, points.getX(i));
+                maxY = Math.max(maxY, points.getY(i));
+                maxZ = Math.max(maxZ, points.getZ(i));
+            }
+            double localX = (minX + maxX) / 2, localY = (minY + maxY) / 2, localZ = (minZ + maxZ) / 2;
+            double radiusSquared = 0;
+            for (int i = from; i < to; i++) {
+                double dx = points.getX(i) - localX, dy = points.getY(i) - localY, dz = points.getZ(i) - localZ;
+                radiusSquared = Math.max(radiusSquared, dx * dx + dy * dy + dz * dz);
+            }
+            this.centerX = frame.getX() + localX;
+            this.centerY = frame.getY() + localY;
+            this.centerZ = frame.getZ() + localZ;
+            this.radius = Math.sqrt(radiusSquared);
+        }
+
+        /**
+         * Tests the sphere against a player's view distance and view cone.
+         */
+        Visibility visibility(Location eye, double range, double fieldOfView) {
+            double dx = centerX - eye.getX(), dy = centerY - eye.getY(), dz = centerZ - eye.getZ();
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (distance - radius > range)
+                return Visibility.HIDDEN;
+            boolean inRange = distance + radius <= range;
+            if (fieldOfView <= 0 || fieldOfView >= 360)
+                return inRange ? Visibility.VISIBLE : Visibility.PARTIAL;
+            // the cone only says something about the whole shape when the player is clear of it
+            if (distance <= radius + ViewCulling.NEAR_DISTANCE)
+                return Visibility.PARTIAL;
+            Vector look = eye.getDirection();
+            double cosine = (dx * look.getX() + dy * look.getY() + dz * look.getZ()) / distance;
+            double angle = Math.acos(Math.clamp(cosine, -1, 1));
+            double angularRadius = Math.asin(radius / distance);
+            double halfFieldOfView = Math.toRadians(fieldOfView / 2);
+            if (angle - angularRadius > halfFieldOfView)
+                return Visibility.HIDDEN;
+            return inRange && angle + angularRadius <= halfFieldOfView ? Visibility.VISIBLE : Visibility.PARTIAL;
+        }
+    }
+}
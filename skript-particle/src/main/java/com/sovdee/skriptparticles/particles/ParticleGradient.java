@@ -1,37 +1,182 @@
 package com.sovdee.skriptparticles.particles;
 
 import ch.njol.skript.util.ColorRGB;
+import com.sovdee.shapes.sampling.PointBuffer;
 import com.sovdee.skriptparticles.util.Quaternion;
 import org.bukkit.Color;
 import org.bukkit.util.Vector;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Vector3f;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Colours particles by inverse-distance weighting between coloured points.
+ * <p>
+ * Colours for a whole point buffer can be computed once with {@link #getColourField(PointBuffer, Quaternion)} and are
+ * reused until the buffer or the gradient changes. Very large buffers can optionally be coloured through a coarse
+ * lookup grid with trilinear interpolation, see {@link #setLookupGridSize(int)}.
+ * <p>
+ * Changes are tracked by version, so the gradient's points must be moved through {@link Point#setPosition(Vector)}
+ * rather than by modifying their position vectors in place.
+ * <p>
+ * Particles share their gradient with their clones, so drawing never modifies it: the orientation of a local
+ * gradient is passed in with each frame. Colouring is safe to do from several threads at once.
+ */
 public class ParticleGradient {
 
+    // Versions are drawn from one sequence shared with the points, so a change to either always raises the
+    // gradient's version, see getVersion()
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private static volatile int defaultLookupGridSize = 0;
+
     private final Quaternion orientation = new Quaternion(1, 0, 0, 0);
-    private final List<Point> points = new ArrayList<>();
-    private boolean local = false;
+    // copied on write, so colouring can iterate it while a script edits the gradient
+    private final List<Point> points = new CopyOnWriteArrayList<>();
+    private volatile boolean local = false;
+    private volatile int lookupGridSize = defaultLookupGridSize;
+    private volatile long version = VERSIONS.incrementAndGet();
+    // keyed weakly by buffer, so fields for every level of detail can be kept until their buffers are replaced
+    private final Map<PointBuffer, ColourField> colourFields = Collections.synchronizedMap(new WeakHashMap<>());
 
     public Color calculateColour(Vector delta) {
+        return Color.fromRGB(calculateRGB(delta.getX(), delta.getY(), delta.getZ()));
+    }
+
+    /**
+     * Calculates the colour at an offset from the shape's center, using the gradient's own orientation.
+     *
+     * @return the colour, packed as 0xRRGGBB
+     */
+    public int calculateRGB(double x, double y, double z) {
+        return calculateRGB(x, y, z, orientation);
+    }
+
+    /**
+     * Calculates the colour at an offset from the center of a shape drawn with the given orientation.
+     *
+     * @param orientation the orientation of the shape, used if the gradient is local
+     * @return the colour, packed as 0xRRGGBB
+     */
+    public int calculateRGB(double x, double y, double z, Quaternion orientation) {
         if (local) {
-            orientation.transform(delta);
+            Vector3f rotated = orientation.transform((float) x, (float) y, (float) z, new Vector3f());
+            x = rotated.x;
+            y = rotated.y;
+            z = rotated.z;
         }
 
         double weightTotal = 0;
-        double[] rgb = new double[]{0, 0, 0};
-        double weight;
-        Color colour;
+        double red = 0, green = 0, blue = 0;
         for (Point point : points) {
-            weight = (1 / (point.getPosition().clone().subtract(delta).length()));
+            Vector position = point.getPosition();
+            double dx = position.getX() - x, dy = position.getY() - y, dz = position.getZ() - z;
+            double weight = 1 / Math.sqrt(dx * dx + dy * dy + dz * dz);
             weightTotal += weight;
-            colour = point.getColor();
-            rgb[0] += weight * colour.getRed();
-            rgb[1] += weight * colour.getGreen();
-            rgb[2] += weight * colour.getBlue();
+            Color colour = point.getColor();
+            red += weight * colour.getRed();
+            green += weight * colour.getGreen();
+            blue += weight * colour.getBlue();
         }
-        return Color.fromRGB((int) (rgb[0] / weightTotal), (int) (rgb[1] / weightTotal), (int) (rgb[2] / weightTotal));
+        return ((int) (red / weightTotal) << 16) | ((int) (green / weightTotal) << 8) | (int) (blue / weightTotal);
+    }
+
+    /**
+     * Gets the colour of every point in a buffer, packed as 0xRRGGBB, using the gradient's own orientation.
+     *
+     * @see #getColourField(PointBuffer, Quaternion)
+     */
+    public int[] getColourField(PointBuffer buffer) {
+        return getColourField(buffer, orientation);
+    }
+
+    /**
+     * Gets the colour of every point in a buffer, packed as 0xRRGGBB.
+     * The colours are cached and only recalculated when a different buffer is passed in, or the gradient or the
+     * orientation has changed. Buffers are expected not to change once coloured, as with the ones cached by point samplers.
+     *
+     * @param buffer the points, relative to the shape's center
+     * @param orientation the orientation of the shape, used if the gradient is local
+     * @return the colours, indexed like the buffer. Must not be modified.
+     */
+    public int[] getColourField(PointBuffer buffer, Quaternion orientation) {
+        // read before colouring, so a change made while colouring leaves the field stale rather than wrong
+        long version = getVersion();
+        @Nullable ColourField field = colourFields.get(buffer);
+        if (field != null && field.matches(buffer.size(), version, orientation))
+            return field.colours;
+
+        int size = buffer.size();
+        int lookupGridSize = this.lookupGridSize;
+        int[] colours = lookupGridSize > 1 && size > lookupGridSize * lookupGridSize * lookupGridSize
+                ? new LookupGrid(this, orientation, buffer, lookupGridSize).sample(buffer)
+                : calculateRGB(buffer, orientation);
+        colourFields.put(buffer, new ColourField(size, version, orientation.x, orientation.y, orientation.z, orientation.w, colours));
+        return colours;
+    }
+
+    private int[] calculateRGB(PointBuffer buffer, Quaternion orientation) {
+        int[] colours = new int[buffer.size()];
+        for (int i = 0; i < colours.length; i++)
+            colours[i] = calculateRGB(buffer.getX(i), buffer.getY(i), buffer.getZ(i), orientation);
+        return colours;
+    }
+
+    /**
+     * Gets the version of everything the colours depend on besides the points and orientation passed in.
+     * The gradient's own version is raised by its setters, and each point's by its own, all from one increasing
+     * sequence, so the highest of them changes whenever anything does.
+     */
+    private long getVersion() {
+        long version = this.version;
+        for (Point point : points)
+            version = Math.max(version, point.version);
+        return version;
+    }
+
+    private void changed() {
+        version = VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of samples along each axis of the lookup grid, or 0 if colours are always calculated exactly.
+     */
+    public int getLookupGridSize() {
+        return lookupGridSize;
+    }
+
+    /**
+     * Sets the number of samples along each axis of the lookup grid used for large buffers.
+     * Buffers with more points than the grid has samples are coloured by trilinear interpolation between
+     * exactly calculated samples, which is faster but slightly less accurate.
+     *
+     * @param lookupGridSize the number of samples along each axis, or 0 to always calculate colours exactly
+     */
+    public void setLookupGridSize(int lookupGridSize) {
+        this.lookupGridSize = lookupGridSize < 2 ? 0 : lookupGridSize;
+        changed();
+    }
+
+    /**
+     * Gets the lookup grid size new gradients start with, see {@link #setLookupGridSize(int)}.
+     */
+    public static int getDefaultLookupGridSize() {
+        return defaultLookupGridSize;
+    }
+
+    /**
+     * Sets the lookup grid size new gradients start with. Gradients that already exist keep theirs.
+     *
+     * @param lookupGridSize the number of samples along each axis, or 0 to always calculate colours exactly
+     */
+    public static void setDefaultLookupGridSize(int lookupGridSize) {
+        defaultLookupGridSize = lookupGridSize < 2 ? 0 : lookupGridSize;
     }
 
     public Quaternion getOrientation() {
@@ -42,17 +187,22 @@ public class ParticleGradient {
         this.orientation.set(orientation.clone());
     }
 
+    /**
+     * @return an unmodifiable view of the gradient's points
+     */
     public List<Point> getPoints() {
-        return points;
+        return Collections.unmodifiableList(points);
     }
 
     public void setPoints(List<Point> points) {
         this.points.clear();
         this.points.addAll(points);
+        changed();
     }
 
     public void addPoint(Vector position, Color color) {
         points.add(new Point(position, color));
+        changed();
     }
 
     public boolean isLocal() {
@@ -61,6 +211,92 @@ public class ParticleGradient {
 
     public void setLocal(boolean local) {
         this.local = local;
+        changed();
+    }
+
+    private record ColourField(int size, long version, double orientationX, double orientationY, double orientationZ,
+                               double orientationW, int[] colours) {
+
+        boolean matches(int size, long version, Quaternion orientation) {
+            return this.size == size && this.version == version && orientationX == orientation.x
+                    && orientationY == orientation.y && orientationZ == orientation.z && orientationW == orientation.w;
+        }
+    }
+
+    /**
+     * Exact colours sampled on a regular grid over a buffer's bounding box.
+     */
+    private static final class LookupGrid {
+
+        private final int size;
+        private final double minX, minY, minZ;
+        private final double stepX, stepY, stepZ;
+        private final int[] samples;
+
+        LookupGrid(ParticleGradient gradient, Quaternion orientation, PointBuffer buffer, int size) {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+            for (int i = 0; i < buffer.size(); i++) {
+                minX = Math.min(minX, buffer.getX(i));
+                minY = Math.min(minY, buffer.getY(i));
+                minZ = Math.min(minZ, buffer.getZ(i));
+                maxX = Math.max(maxX, buffer.getX(i));
+                maxY = Math.max(maxY, buffer.getY(i));
+                maxZ = Math.max(maxZ, buffer.getZ(i));
+            }
+            this.size = size;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.stepX = (maxX - minX) / (size - 1);
+            this.stepY = (maxY - minY) / (size - 1);
+            this.stepZ = (maxZ - minZ) / (size - 1);
+            this.samples = new int[size * size * size];
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    for (int z = 0; z < size; z++) {
+                        samples[(x * size + y) * size + z] = gradient.calculateRGB(minX + x * stepX, minY + y * stepY, minZ + z * stepZ, orientation);
+                    }
+                }
+            }
+        }
+
+        int[] sample(PointBuffer buffer) {
+            int[] colours = new int[buffer.size()];
+            for (int i = 0; i < colours.length; i++)
+                colours[i] = sample(buffer.getX(i), buffer.getY(i), buffer.getZ(i));
+            return colours;
+        }
+
+        private int sample(double x, double y, double z) {
+            // cell index and position within the cell along each axis
+            double fx = stepX > 0 ? (x - minX) / stepX : 0;
+            double fy = stepY > 0 ? (y - minY) / stepY : 0;
+            double fz = stepZ > 0 ? (z - minZ) / stepZ : 0;
+            int x0 = Math.clamp((int) fx, 0, size - 2);
+            int y0 = Math.clamp((int) fy, 0, size - 2);
+            int z0 = Math.clamp((int) fz, 0, size - 2);
+            double tx = Math.clamp(fx - x0, 0, 1), ty = Math.clamp(fy - y0, 0, 1), tz = Math.clamp(fz - z0, 0, 1);
+
+            int rgb = 0;
+            for (int shift = 16; shift >= 0; shift -= 8) {
+                double c00 = lerp(channel(x0, y0, z0, shift), channel(x0 + 1, y0, z0, shift), tx);
+                double c10 = lerp(channel(x0, y0 + 1, z0, shift), channel(x0 + 1, y0 + 1, z0, shift), tx);
+                double c01 = lerp(channel(x0, y0, z0 + 1, shift), channel(x0 + 1, y0, z0 + 1, shift), tx);
+                double c11 = lerp(channel(x0, y0 + 1, z0 + 1, shift), channel(x0 + 1, y0 + 1, z0 + 1, shift), tx);
+                double value = lerp(lerp(c00, c10, ty), lerp(c01, c11, ty), tz);
+                rgb |= Math.clamp((int) Math.round(value), 0, 255) << shift;
+            }
+            return rgb;
+        }
+
+        private int channel(int x, int y, int z, int shift) {
+            return (samples[(x * size + y) * size + z] >> shift) & 0xFF;
+        }
+
+        private static double lerp(double a, double b, double t) {
+            return a + (b - a) * t;
+        }
     }
 
     @Override
@@ -76,6 +312,7 @@ public class ParticleGradient {
 
         private Vector position;
         private Color color;
+        private volatile long version = VERSIONS.incrementAndGet();
 
         public Point(Vector position, Color color) {
             this.position = position;
@@ -93,6 +330,7 @@ public class ParticleGradient {
 
         public void setPosition(Vector position) {
             this.position = position;
+            version = VERSIONS.incrementAndGet();
         }
 
         public Color getColor() {
@@ -101,6 +339,7 @@ public class ParticleGradient {
 
         public void setColor(Color color) {
             this.color = color;
+            version = VERSIONS.incrementAndGet();
         }
 
         @Override
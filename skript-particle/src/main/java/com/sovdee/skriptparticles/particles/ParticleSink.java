@@ -0,0 +1,23 @@
+package com.sovdee.skriptparticles.particles;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives individual particles to send to a player.
+ * The default sink sends them through {@link Player#spawnParticle}; other sinks can count or record them,
+ * which allows emission to be measured without a running server.
+ */
+@FunctionalInterface
+public interface ParticleSink {
+
+    /**
+     * Sends particles straight to the player.
+     */
+    ParticleSink PLAYER = (player, particle, x, y, z, count, offsetX, offsetY, offsetZ, extra, data, force) ->
+            player.spawnParticle(particle, x, y, z, count, offsetX, offsetY, offsetZ, extra, data, force);
+
+    void spawn(Player player, org.bukkit.Particle particle, double x, double y, double z, int count,
+               double offsetX, double offsetY, double offsetZ, double extra, @Nullable Object data, boolean force);
+
+}
@@ -0,0 +1,106 @@
+package com.sovdee.skriptparticles.particles;
+
+import com.sovdee.shapes.sampling.PointBuffer;
+import org.bukkit.Color;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The particle parameters of each point in a buffer: count, offset, and data (colour and dust size).
+ * <p>
+ * Motion sets each point's offset and a count of 0, and gradients set each point's colour, keeping the particle's
+ * dust size. Parameters no point changes are stored once. Attributes are worked out once per buffer, see
+ * {@link Particle#getAttributes(RenderFrame, PointBuffer)}, so drawing a frame only reads them and never modifies
+ * the particle itself.
+ */
+public final class PointAttributes {
+
+    private final int count;
+    private final double offsetX, offsetY, offsetZ;
+    private final @Nullable Object data;
+    private final double @Nullable [] offsets;
+    private final Object @Nullable [] pointData;
+
+    private PointAttributes(Particle particle, RenderFrame frame, PointBuffer points) {
+        @Nullable ParticleMotion motion = particle.motion();
+        @Nullable ParticleGradient gradient = particle.gradient();
+        int size = points.size();
+
+        this.count = motion != null ? 0 : particle.count();
+        this.offsetX = particle.offsetX();
+        this.offsetY = particle.offsetY();
+        this.offsetZ = particle.offsetZ();
+        @Nullable Object data = particle.data();
+        this.data = data;
+
+        if (motion != null) {
+            offsets = new double[size * 3];
+            Vector axis = frame.getYAxis();
+            for (int i = 0; i < size; i++) {
+                Vector motionVector = motion.getMotionVector(axis, new Vector(points.getX(i), points.getY(i), points.getZ(i)));
+                offsets[i * 3] = motionVector.getX();
+                offsets[i * 3 + 1] = motionVector.getY();
+                offsets[i * 3 + 2] = motionVector.getZ();
+            }
+        } else {
+            offsets = null;
+        }
+
+        if (gradient != null) {
+            int[] colours = gradient.getColourField(points, frame.getOrientation());
+            pointData = new Object[size];
+            // colouring goes through a copy so the particle itself is never modified
+            Particle scratch = particle.clone();
+            // neighbouring points often share a colour, and so can share its data
+            Map<Integer, Object> dataByColour = new HashMap<>();
+            for (int i = 0; i < size; i++)
+                pointData[i] = dataByColour.computeIfAbsent(colours[i], rgb -> colourData(scratch, data, rgb));
+        } else {
+            pointData = null;
+        }
+    }
+
+    /**
+     * Works out the attributes of every point in a buffer.
+     */
+    static PointAttributes compute(Particle particle, RenderFrame frame, PointBuffer points) {
+        return new PointAttributes(particle, frame, points);
+    }
+
+    /**
+     * Builds the particle data for a colour, keeping the size and fade colour of dust.
+     */
+    private static Object colourData(Particle scratch, @Nullable Object data, int rgb) {
+        Color colour = Color.fromRGB(rgb);
+        if (data instanceof org.bukkit.Particle.DustTransition transition)
+            return new org.bukkit.Particle.DustTransition(colour, transition.getToColor(), transition.getSize());
+        if (data instanceof org.bukkit.Particle.DustOptions dust)
+            return new org.bukkit.Particle.DustOptions(colour, dust.getSize());
+        scratch.color(colour);
+        return scratch.data();
+    }
+
+    public int getCount(int index) {
+        return count;
+    }
+
+    public double getOffsetX(int index) {
+        return offsets == null ? offsetX : offsets[index * 3];
+    }
+
+    public double getOffsetY(int index) {
+        return offsets == null ? offsetY : offsets[index * 3 + 1];
+    }
+
+    public double getOffsetZ(int index) {
+        return offsets == null ? offsetZ : offsets[index * 3 + 2];
+    }
+
+    @Nullable
+    public Object getData(int index) {
+        return pointData == null ? data : pointData[index];
+    }
+}
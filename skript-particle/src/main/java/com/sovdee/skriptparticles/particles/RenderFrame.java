@@ -0,0 +1,101 @@
+package com.sovdee.skriptparticles.particles;
+
+import com.sovdee.shapes.shapes.Shape;
+import com.sovdee.skriptparticles.shapes.DrawData;
+import com.sovdee.skriptparticles.shapes.DrawPriority;
+import com.sovdee.skriptparticles.util.DynamicLocation;
+import com.sovdee.skriptparticles.util.Quaternion;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A snapshot of where a shape is being drawn, taken once per frame.
+ * Resolving the anchor (which may follow an entity) once lets each point be spawned with a simple offset,
+ * instead of looking up and cloning the anchor location for every particle.
+ * Frames are immutable, so a frame can be emitted from any thread while the shape is drawn again elsewhere.
+ */
+public final class RenderFrame {
+
+    private final @Nullable World world;
+    private final double x, y, z;
+    private final Quaternion orientation;
+    private final Vector yAxis;
+    private final DrawPriority priority;
+
+    private RenderFrame(Location anchor, Quaternion orientation, DrawPriority priority) {
+        this.world = anchor.getWorld();
+        this.x = anchor.getX();
+        this.y = anchor.getY();
+        this.z = anchor.getZ();
+        this.orientation = orientation.clone();
+        this.yAxis = orientation.transform(new Vector(0, 1, 0));
+        this.priority = priority;
+    }
+
+    /**
+     * Snapshots the location, orientation and priority a shape was last drawn with.
+     *
+     * @param shape the shape being drawn
+     * @return the frame, or null if the shape is null or has not been drawn yet
+     */
+    @Nullable
+    public static RenderFrame of(@Nullable Shape shape) {
+        if (shape == null) return null;
+        DrawData dd = DrawData.of(shape);
+        @Nullable DynamicLocation location = dd.getLastLocation();
+        if (location == null) return null;
+        return new RenderFrame(location.getLocation(), dd.getLastOrientation(), dd.getPriority());
+    }
+
+    /**
+     * Snapshots a location and orientation to draw a shape with.
+     *
+     * @param anchor the location of the shape's center, before its offset
+     * @param orientation the orientation the shape is drawn with
+     * @param priority the shape's draw priority
+     * @return the frame
+     */
+    public static RenderFrame of(Location anchor, Quaternion orientation, DrawPriority priority) {
+        return new RenderFrame(anchor, orientation, priority);
+    }
+
+    @Nullable
+    public World getWorld() {
+        return world;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * @return the orientation the shape is drawn with. Must not be modified.
+     */
+    public Quaternion getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * @return the shape's local y-axis, used as the axis for particle motion
+     */
+    public Vector getYAxis() {
+        return yAxis;
+    }
+
+    /**
+     * @return the shape's draw priority, used when the particle budget runs low
+     */
+    public DrawPriority getPriority() {
+        return priority;
+    }
+}
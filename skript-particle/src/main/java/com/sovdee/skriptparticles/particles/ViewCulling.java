@@ -0,0 +1,49 @@
+package com.sovdee.skriptparticles.particles;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Settings for skipping particles a player would not see, because they are too far away or behind the player.
+ * <p>
+ * A shape is first tested as a whole, using a sphere around its points. Players the sphere is entirely out of view
+ * for are skipped. For shapes with many points that are only partly in view, each point is then tested on its own.
+ *
+ * @param viewDistance the distance beyond which particles are not sent
+ * @param forcedViewDistance the view distance for forced particles
+ * @param fieldOfView the angle of the player's view cone in degrees, or 0 to send particles in every direction
+ * @param pointCullingThreshold the number of points a shape needs before its points are tested individually
+ */
+public record ViewCulling(double viewDistance, double forcedViewDistance, double fieldOfView, int pointCullingThreshold) {
+
+    // the client doesn't render normal particles beyond 32 blocks, or forced ones beyond 512
+    public static final ViewCulling DEFAULT = new ViewCulling(32, 512, 140, 256);
+
+    // points this close to a player are never culled by the view cone
+    public static final double NEAR_DISTANCE = 4;
+
+    /**
+     * Reads culling settings from a config section.
+     *
+     * @return the settings, or null if the section is missing or culling is disabled
+     */
+    @Nullable
+    public static ViewCulling fromConfig(@Nullable ConfigurationSection section) {
+        if (section == null || !section.getBoolean("enabled", false))
+            return null;
+        return new ViewCulling(
+                section.getDouble("view-distance", DEFAULT.viewDistance),
+                section.getDouble("forced-view-distance", DEFAULT.forcedViewDistance),
+                section.getDouble("field-of-view", DEFAULT.fieldOfView),
+                section.getInt("point-culling-threshold", DEFAULT.pointCullingThreshold));
+    }
+
+    /**
+     * @return the cosine of half the field of view, or -1 if particles are sent in every direction
+     */
+    public double halfFieldOfViewCosine() {
+        if (fieldOfView <= 0 || fieldOfView >= 360)
+            return -1;
+        return Math.cos(Math.toRadians(fieldOfView / 2));
+    }
+}
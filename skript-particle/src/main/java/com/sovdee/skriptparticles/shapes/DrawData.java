@@ -1,6 +1,7 @@
 package com.sovdee.skriptparticles.shapes;
 
 import com.sovdee.shapes.sampling.DrawContext;
+import com.sovdee.shapes.sampling.PointSampler;
 import com.sovdee.shapes.shapes.Shape;
 import com.sovdee.skriptparticles.particles.Particle;
 import com.sovdee.skriptparticles.util.DynamicLocation;
@@ -9,17 +10,19 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Plugin-side rendering metadata attached to library shapes via {@link DrawContext}.
- * Holds particle, location, animation, and debug axis state.
+ * Holds particle, location, animation, priority, and debug axis state.
  */
 public class DrawData implements DrawContext {
 
     private Particle particle;
     private @Nullable DynamicLocation location;
-    private @Nullable DynamicLocation lastLocation;
-    private final Quaternion lastOrientation;
+    // replaced rather than modified on each draw, so a frame can be read from another thread
+    private volatile @Nullable DynamicLocation lastLocation;
+    private volatile Quaternion lastOrientation;
     private long animationDuration = 0;
     private boolean drawLocalAxes = false;
     private boolean drawGlobalAxes = false;
+    private DrawPriority priority = DrawPriority.NORMAL;
 
     public DrawData() {
         this.particle = (Particle) new Particle(org.bukkit.Particle.FLAME).extra(0);
@@ -28,13 +31,17 @@ public class DrawData implements DrawContext {
 
     /**
      * Gets the DrawData attached to a shape's PointSampler, creating and attaching one if missing.
+     * Attaching is done while holding the sampler, so concurrent draws of the same shape attach the same DrawData.
      */
     public static DrawData of(Shape shape) {
-        DrawContext ctx = shape.getPointSampler().getDrawContext();
-        if (ctx instanceof DrawData dd) return dd;
-        DrawData dd = new DrawData();
-        shape.getPointSampler().setDrawContext(dd);
-        return dd;
+        PointSampler sampler = shape.getPointSampler();
+        if (sampler.getDrawContext() instanceof DrawData dd) return dd;
+        synchronized (sampler) {
+            if (sampler.getDrawContext() instanceof DrawData dd) return dd;
+            DrawData dd = new DrawData();
+            sampler.setDrawContext(dd);
+            return dd;
+        }
     }
 
     // ---- Particle ----
@@ -62,9 +69,12 @@ public class DrawData implements DrawContext {
 
     // ---- Orientation ----
 
+    /**
+     * @return the orientation the shape was last drawn with. Must not be modified.
+     */
     public Quaternion getLastOrientation() { return lastOrientation; }
 
-    public void setLastOrientation(Quaternion orientation) { this.lastOrientation.set(orientation); }
+    public void setLastOrientation(Quaternion orientation) { this.lastOrientation = orientation.clone(); }
 
     // ---- Animation ----
 
@@ -72,6 +82,12 @@ public class DrawData implements DrawContext {
 
     public void setAnimationDuration(long animationDuration) { this.animationDuration = animationDuration; }
 
+    // ---- Priority ----
+
+    public DrawPriority getPriority() { return priority; }
+
+    public void setPriority(DrawPriority priority) { this.priority = priority; }
+
     // ---- Axes ----
 
     public boolean showLocalAxes() { return drawLocalAxes; }
@@ -92,10 +108,11 @@ public class DrawData implements DrawContext {
             copy.location = this.location.clone();
         if (this.lastLocation != null)
             copy.lastLocation = this.lastLocation.clone();
-        copy.lastOrientation.set(this.lastOrientation);
+        copy.lastOrientation = this.lastOrientation.clone();
         copy.animationDuration = this.animationDuration;
         copy.drawLocalAxes = this.drawLocalAxes;
         copy.drawGlobalAxes = this.drawGlobalAxes;
+        copy.priority = this.priority;
         return copy;
     }
 }
@@ -1,25 +1,32 @@
 package com.sovdee.skriptparticles.shapes;
 
 import ch.njol.skript.Skript;
+import com.sovdee.shapes.sampling.PointBuffer;
+import com.sovdee.shapes.sampling.PointCursor;
+import com.sovdee.shapes.sampling.PointSampler;
 import com.sovdee.shapes.shapes.Shape;
 import com.sovdee.skriptparticles.particles.Particle;
-import com.sovdee.skriptparticles.particles.ParticleGradient;
+import com.sovdee.skriptparticles.particles.ParticleEmitter;
+import com.sovdee.skriptparticles.particles.ParticleSink;
+import com.sovdee.skriptparticles.particles.RenderFrame;
+import com.sovdee.skriptparticles.particles.ViewCulling;
+import com.sovdee.skriptparticles.util.AnimationClock;
 import com.sovdee.skriptparticles.util.DynamicLocation;
-import com.sovdee.skriptparticles.util.MathUtil;
 import com.sovdee.skriptparticles.util.ParticleUtil;
+import com.sovdee.skriptparticles.util.PlayerIndex;
 import com.sovdee.skriptparticles.util.Quaternion;
 import com.sovdee.skriptparticles.util.VectorConversion;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.util.Vector;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.joml.Quaterniond;
-import org.joml.Vector3d;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -27,18 +34,66 @@ import java.util.function.Consumer;
  */
 public class DrawManager {
 
-    public static void draw(Shape shape, Collection<Player> recipients) {
+    private static volatile ParticleEmitter emitter = new ParticleEmitter(ParticleSink.PLAYER);
+
+    // Distances beyond which viewers get each coarser level of detail
+    private static volatile double[] levelOfDetailDistances = {32, 64};
+
+    // The most ticks' worth of an animation drawn in one run when catching up after lag
+    private static volatile double animationCatchUp = 3;
+
+    /**
+     * Sets the distances beyond which viewers get each coarser level of detail, in blocks.
+     * Only the smallest {@link PointSampler#LEVELS_OF_DETAIL} - 1 distances are used.
+     */
+    public static void setLevelOfDetailDistances(List<Double> distances) {
+        levelOfDetailDistances = distances.stream()
+                .mapToDouble(Double::doubleValue)
+                .sorted()
+                .limit(PointSampler.LEVELS_OF_DETAIL - 1)
+                .toArray();
+    }
+
+    public static double getAnimationCatchUp() {
+        return animationCatchUp;
+    }
+
+    /**
+     * Sets how many ticks' worth of points an animation may draw in one run after the server has fallen behind.
+     * Points beyond that are skipped, so lag doesn't turn into a burst of particles.
+     */
+    public static void setAnimationCatchUp(double ticks) {
+        animationCatchUp = Math.max(ticks, 1);
+    }
+
+    public static ParticleEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Sets the emitter that frames are sent through, for example one with a recording {@link ParticleSink}.
+     */
+    public static void setEmitter(ParticleEmitter emitter) {
+        DrawManager.emitter = emitter;
+    }
+
+    /*
+     * In the draw methods below, null recipients means every player close enough to see the shape,
+     * looked up again for every frame.
+     */
+
+    public static void draw(Shape shape, @Nullable Collection<Player> recipients) {
         DrawData dd = DrawData.of(shape);
         DynamicLocation location = dd.getLocation();
         if (location == null) return;
         draw(shape, location, Quaternion.IDENTITY, dd.getParticleRaw(), recipients);
     }
 
-    public static void draw(Shape shape, DynamicLocation location, Collection<Player> recipients) {
+    public static void draw(Shape shape, DynamicLocation location, @Nullable Collection<Player> recipients) {
         draw(shape, location, Quaternion.IDENTITY, DrawData.of(shape).getParticleRaw(), recipients);
     }
 
-    public static void drawWithConsumer(Shape shape, DynamicLocation location, Consumer<Shape> consumer, Collection<Player> recipients) {
+    public static void drawWithConsumer(Shape shape, DynamicLocation location, Consumer<Shape> consumer, @Nullable Collection<Player> recipients) {
         consumer.accept(shape);
         DrawData dd = DrawData.of(shape);
         Quaterniond shapeOrientation = shape.getOrientation();
@@ -46,7 +101,7 @@ public class DrawManager {
         draw(shape, location, shapeOrientationQ, dd.getParticleRaw(), recipients);
     }
 
-    public static void draw(Shape shape, DynamicLocation location, Quaternion baseOrientation, Particle particle, Collection<Player> recipients) {
+    public static void draw(Shape shape, DynamicLocation location, Quaternion baseOrientation, Particle particle, @Nullable Collection<Player> recipients) {
         DrawData dd = DrawData.of(shape);
 
         if (location.isNull()) {
@@ -58,63 +113,222 @@ public class DrawManager {
         dd.setLastLocation(location.clone());
         Quaterniond shapeOrientation = shape.getOrientation();
         Quaternion shapeOrientationQ = new Quaternion((float) shapeOrientation.x, (float) shapeOrientation.y, (float) shapeOrientation.z, (float) shapeOrientation.w);
-        dd.getLastOrientation().set(baseOrientation.clone().mul(shapeOrientationQ));
+        Quaternion orientation = baseOrientation.clone().mul(shapeOrientationQ);
+        dd.setLastOrientation(orientation);
 
         if (!particle.override()) {
             dd.getParticleRaw().parent(shape);
             particle = dd.getParticleRaw();
-            @Nullable ParticleGradient gradient = particle.gradient();
-            if (gradient != null && gradient.isLocal())
-                gradient.setOrientation(dd.getLastOrientation());
         }
 
-        particle.receivers(recipients);
+        // Resolve the anchor once for the whole frame rather than once per particle.
+        // The frame carries the orientation, so nothing shared with other draws is modified.
+        @Nullable RenderFrame frame = particle.parent() == shape
+                ? RenderFrame.of(location.getLocation(), orientation, dd.getPriority())
+                : RenderFrame.of(particle.parent());
 
         // Get points from library shape using the last orientation
-        Quaterniond lastOrientationD = new Quaterniond(dd.getLastOrientation().x, dd.getLastOrientation().y, dd.getLastOrientation().z, dd.getLastOrientation().w);
-        Set<Vector3d> jomlPoints = shape.getPointSampler().getPoints(shape, lastOrientationD);
-        Collection<Vector> toDraw = VectorConversion.toBukkit(jomlPoints);
-
+        Quaterniond lastOrientationD = new Quaterniond(orientation.x, orientation.y, orientation.z, orientation.w);
         long animationDuration = dd.getAnimationDuration();
-        if (animationDuration > 0) {
-            int particleCount = toDraw.size();
-            double millisecondsPerPoint = animationDuration / (double) particleCount;
-            Iterator<List<Vector>> batchIterator = MathUtil.batch(toDraw, millisecondsPerPoint).iterator();
+
+        if (animationDuration <= 0 && shape.getPointSampler().isLevelOfDetail()) {
+            // Each recipient gets the coarsest level of detail that suits their distance from the shape
+            Location center = location.getLocation().add(VectorConversion.toBukkit(shape.getOffset()));
+            Collection<Player> viewers = recipients;
+            if (viewers == null) {
+                PointBuffer points = shape.getPointSampler().getPointBuffer(shape, lastOrientationD);
+                viewers = nearbyPlayers(particle, frame, points, 0, points.size());
+            }
+            List<List<Player>> levels = groupByLevelOfDetail(viewers, center);
+            for (int level = 0; level < levels.size(); level++) {
+                if (levels.get(level).isEmpty())
+                    continue;
+                if (!spawn(particle, frame, shape.getPointSampler().getPointBuffer(shape, lastOrientationD, level), levels.get(level)))
+                    return;
+            }
+        } else if (animationDuration > 0) {
+            // Points are spawned as they come due, straight from the cached buffer
+            PointBuffer points = shape.getPointSampler().getPointBuffer(shape, lastOrientationD);
+            double millisecondsPerPoint = animationDuration / (double) points.size();
+            PointCursor cursor = new PointCursor(points, millisecondsPerPoint, AnimationClock.TICK_MILLIS);
+            AnimationClock clock = new AnimationClock();
+            int maxPointsPerRun = Math.max(1, (int) Math.ceil(animationCatchUp * AnimationClock.TICK_MILLIS / millisecondsPerPoint));
             Particle finalParticle = particle;
-            BukkitRunnable runnable = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (!batchIterator.hasNext()) {
-                        this.cancel();
-                        return;
-                    }
-                    List<Vector> batch = batchIterator.next();
-                    try {
-                        for (Vector point : batch) {
-                            finalParticle.spawn(point);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        Skript.error("Failed to spawn particle! Error: " + e.getMessage());
-                    }
-                }
-            };
-            runnable.runTaskTimerAsynchronously(Skript.getInstance(), 0, 1);
+            RenderScheduler.get().submit("animate " + shape.getClass().getSimpleName().toLowerCase(), dd.getPriority(), 1, () -> {
+                if (!cursor.hasNext())
+                    return false;
+                // the anchor may move during the animation, so each tick is its own frame
+                @Nullable RenderFrame tickFrame = RenderFrame.of(finalParticle.parent());
+                int from = cursor.getPosition();
+                // slices follow the real time since the last run, so the animation keeps to its duration under lag
+                cursor.advance(clock.elapsed());
+                int to = cursor.getPosition();
+                // when far behind, only the most recent points are drawn instead of the whole backlog at once
+                return spawn(finalParticle, tickFrame, points, Math.max(from, to - maxPointsPerRun), to, recipients) && cursor.hasNext();
+            });
         } else {
-            for (Vector point : toDraw) {
-                try {
-                    particle.spawn(point);
-                } catch (IllegalArgumentException e) {
-                    Skript.error("Failed to spawn particle! Error: " + e.getMessage());
-                    return;
+            if (!spawn(particle, frame, shape.getPointSampler().getPointBuffer(shape, lastOrientationD), recipients))
+                return;
+        }
+
+        drawAxes(shape, dd, particle, frame, location, orientation, recipients);
+    }
+
+    /**
+     * Draws one shape at many locations, sampling it once rather than once per location.
+     * Each location is its own frame, so the same points are emitted at every location with just a different anchor.
+     * Locations drawn with the same orientation share one buffer, and each other orientation only re-transforms the
+     * shape's cached geometry.
+     * <p>
+     * Animations keep drawing after this returns and follow their shape's last location, and particles that override
+     * their parent follow another shape, so both are instead drawn with a copy of the shape per location.
+     *
+     * @param shape the shape to draw
+     * @param locations the locations to draw the shape at
+     * @param baseOrientations the orientation to draw the shape with at each location, indexed like the locations,
+     *                         or null to draw it with only its own orientation everywhere
+     * @param recipients the players to draw for, or null for every player close enough to see the shape
+     */
+    public static void drawInstanced(Shape shape, List<DynamicLocation> locations, @Nullable List<Quaternion> baseOrientations, @Nullable Collection<Player> recipients) {
+        DrawData dd = DrawData.of(shape);
+        Particle particle = dd.getParticleRaw();
+        if (locations.size() == 1 || dd.getAnimationDuration() > 0 || particle.override()) {
+            for (int i = 0; i < locations.size(); i++) {
+                Shape copy = locations.size() == 1 ? shape : shape.clone();
+                draw(copy, locations.get(i), baseOrientation(baseOrientations, i), DrawData.of(copy).getParticleRaw(), recipients);
+            }
+            return;
+        }
+
+        particle.parent(shape);
+        Quaterniond shapeOrientation = shape.getOrientation();
+        Quaternion shapeOrientationQ = new Quaternion((float) shapeOrientation.x, (float) shapeOrientation.y, (float) shapeOrientation.z, (float) shapeOrientation.w);
+        boolean levelOfDetail = shape.getPointSampler().isLevelOfDetail();
+        Map<Instance, PointBuffer> buffers = new HashMap<>();
+
+        for (int i = 0; i < locations.size(); i++) {
+            DynamicLocation location = locations.get(i);
+            if (location.isNull()) {
+                @Nullable DynamicLocation shapeLocation = dd.getLocation();
+                if (shapeLocation == null) continue;
+                location = shapeLocation;
+            }
+            Quaternion orientation = baseOrientation(baseOrientations, i).clone().mul(shapeOrientationQ);
+            dd.setLastLocation(location.clone());
+            dd.setLastOrientation(orientation);
+
+            RenderFrame frame = RenderFrame.of(location.getLocation(), orientation, dd.getPriority());
+            PointBuffer points = buffers.computeIfAbsent(new Instance(orientation, 0), instance -> sample(shape, instance));
+            if (levelOfDetail) {
+                Location center = location.getLocation().add(VectorConversion.toBukkit(shape.getOffset()));
+                List<List<Player>> levels = groupByLevelOfDetail(recipients != null ? recipients : nearbyPlayers(particle, frame, points, 0, points.size()), center);
+                for (int level = 0; level < levels.size(); level++) {
+                    if (levels.get(level).isEmpty())
+                        continue;
+                    PointBuffer levelPoints = level == 0 ? points : buffers.computeIfAbsent(new Instance(orientation, level), instance -> sample(shape, instance));
+                    if (!spawn(particle, frame, levelPoints, levels.get(level)))
+                        return;
                 }
+            } else if (!spawn(particle, frame, points, recipients)) {
+                return;
             }
+
+            drawAxes(shape, dd, particle, frame, location, orientation, recipients);
         }
+    }
+
+    private static Quaternion baseOrientation(@Nullable List<Quaternion> baseOrientations, int index) {
+        return baseOrientations == null ? Quaternion.IDENTITY : baseOrientations.get(index);
+    }
+
+    /**
+     * Samples a shape for one orientation and level of detail of an instanced draw.
+     */
+    private static PointBuffer sample(Shape shape, Instance instance) {
+        Quaternion orientation = instance.orientation();
+        Quaterniond orientationD = new Quaterniond(orientation.x, orientation.y, orientation.z, orientation.w);
+        return shape.getPointSampler().getPointBuffer(shape, orientationD, instance.level());
+    }
 
+    /**
+     * The points an instanced draw samples, shared by every location drawn with the same orientation and level of detail.
+     */
+    private record Instance(Quaternion orientation, int level) {}
+
+    private static void drawAxes(Shape shape, DrawData dd, Particle particle, @Nullable RenderFrame frame, DynamicLocation location, Quaternion orientation, @Nullable Collection<Player> recipients) {
+        if (!dd.showLocalAxes() && !dd.showGlobalAxes())
+            return;
+        Collection<Player> viewers = recipients != null ? recipients : nearbyPlayers(particle, frame, new PointBuffer(0), 0, 0);
         if (dd.showLocalAxes()) {
-            ParticleUtil.drawAxes(location.getLocation().add(VectorConversion.toBukkit(shape.getOffset())), dd.getLastOrientation(), recipients);
+            ParticleUtil.drawAxes(location.getLocation().add(VectorConversion.toBukkit(shape.getOffset())), orientation, viewers);
         }
         if (dd.showGlobalAxes()) {
-            ParticleUtil.drawAxes(location.getLocation().add(VectorConversion.toBukkit(shape.getOffset())), Quaternion.IDENTITY, recipients);
+            ParticleUtil.drawAxes(location.getLocation().add(VectorConversion.toBukkit(shape.getOffset())), Quaternion.IDENTITY, viewers);
+        }
+    }
+
+    /**
+     * Sends the particle at every point relative to the frame to the recipients, stopping at the first failure.
+     * Nothing is sent if there is no frame. Null recipients means every player close enough to see the points.
+     *
+     * @return false if a particle failed to spawn
+     */
+    private static boolean spawn(Particle particle, @Nullable RenderFrame frame, PointBuffer points, @Nullable Collection<Player> recipients) {
+        return spawn(particle, frame, points, 0, points.size(), recipients);
+    }
+
+    /**
+     * Sends the particle at the points in a range of the buffer, as {@link #spawn(Particle, RenderFrame, PointBuffer, Collection)}.
+     */
+    private static boolean spawn(Particle particle, @Nullable RenderFrame frame, PointBuffer points, int from, int to, @Nullable Collection<Player> recipients) {
+        if (frame == null)
+            return true;
+        try {
+            emitter.emit(particle, frame, points, from, to, recipients != null ? recipients : nearbyPlayers(particle, frame, points, from, to));
+        } catch (IllegalArgumentException e) {
+            Skript.error("Failed to spawn particle! Error: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the players close enough to see any of a range of points, from the player index.
+     * The search covers a sphere around the frame's anchor that encloses the points, widened by the view distance:
+     * the configured culling distance, or the distance the client renders particles at without culling.
+     */
+    private static Collection<Player> nearbyPlayers(Particle particle, @Nullable RenderFrame frame, PointBuffer points, int from, int to) {
+        @Nullable World world = frame == null ? null : frame.getWorld();
+        if (frame == null || world == null)
+            return List.of();
+        double extentSquared = 0;
+        for (int i = from; i < to; i++) {
+            double x = points.getX(i), y = points.getY(i), z = points.getZ(i);
+            extentSquared = Math.max(extentSquared, x * x + y * y + z * z);
+        }
+        ViewCulling culling = emitter.getCulling() != null ? emitter.getCulling() : ViewCulling.DEFAULT;
+        double range = particle.force() ? culling.forcedViewDistance() : culling.viewDistance();
+        return PlayerIndex.get().getPlayersNear(world, frame.getX(), frame.getY(), frame.getZ(), Math.sqrt(extentSquared) + range);
+    }
+
+    /**
+     * Sorts recipients by the level of detail they should see, based on their distance from the center.
+     * Recipients in another world get full detail.
+     */
+    private static List<List<Player>> groupByLevelOfDetail(Collection<Player> recipients, Location center) {
+        double[] distances = levelOfDetailDistances;
+        List<List<Player>> levels = new ArrayList<>(distances.length + 1);
+        for (int i = 0; i <= distances.length; i++)
+            levels.add(new ArrayList<>());
+        for (Player player : recipients) {
+            int level = 0;
+            if (player.getWorld().equals(center.getWorld())) {
+                double distanceSquared = player.getLocation().distanceSquared(center);
+                while (level < distances.length && distanceSquared > distances[level] * distances[level])
+                    level++;
+            }
+            levels.get(level).add(player);
         }
+        return levels;
     }
 }
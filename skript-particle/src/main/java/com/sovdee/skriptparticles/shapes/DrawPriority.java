@@ -0,0 +1,25 @@
+package com.sovdee.skriptparticles.shapes;
+
+/**
+ * How important it is that a shape is drawn in full when the particle budget runs low.
+ * Each priority may only use a share of each tick's budget, so once the budget runs low, lower priority shapes are
+ * thinned or skipped first, leaving the rest for higher priority ones.
+ */
+public enum DrawPriority {
+    LOW(0.5),
+    NORMAL(0.8),
+    HIGH(1);
+
+    private final double budgetShare;
+
+    DrawPriority(double budgetShare) {
+        this.budgetShare = budgetShare;
+    }
+
+    /**
+     * @return the fraction of each tick's particle budget shapes of this priority may use
+     */
+    public double getBudgetShare() {
+        return budgetShare;
+    }
+}
@@ -0,0 +1,103 @@
+package com.sovdee.skriptparticles.shapes;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A piece of repeating draw work run by the {@link RenderScheduler}, such as a shape drawn for a duration
+ * or an animation. Jobs run every {@link #getPeriod()} ticks until their work reports it is finished,
+ * or until they are cancelled. Higher priority jobs are handed to the workers first each tick, but may still run
+ * alongside lower priority ones.
+ * A job never runs on two workers at once: if it is still running when it is next due, that run is skipped.
+ */
+public final class RenderJob {
+
+    private final long id;
+    private final String description;
+    private final DrawPriority priority;
+    private final long period;
+    private final BooleanSupplier step;
+    private long nextTick;
+    private volatile long runs;
+    private volatile boolean cancelled;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    RenderJob(long id, String description, DrawPriority priority, long period, long firstTick, BooleanSupplier step) {
+        this.id = id;
+        this.description = description;
+        this.priority = priority;
+        this.period = Math.max(period, 1);
+        this.nextTick = firstTick;
+        this.step = step;
+    }
+
+    /**
+     * Claims the job's next run, if it is due and not still running. Only called from the scheduler's timer.
+     *
+     * @return true if the job should now be {@link #run()}
+     */
+    boolean claim(long tick) {
+        if (cancelled || tick < nextTick)
+            return false;
+        nextTick = tick + period;
+        return running.compareAndSet(false, true);
+    }
+
+    /**
+     * Runs the job once, after it has been claimed.
+     *
+     * @return false once the job has finished
+     */
+    boolean run() {
+        try {
+            if (cancelled)
+                return false;
+            runs++;
+            return step.getAsBoolean() && !cancelled;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public DrawPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return the number of ticks between runs
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return the number of times the job has run
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the job. It will not run again and is removed from the scheduler on its next tick.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + id + ": " + description + " (" + priority.name().toLowerCase() + " priority, " + runs + " runs, every " + period + " ticks)";
+    }
+}
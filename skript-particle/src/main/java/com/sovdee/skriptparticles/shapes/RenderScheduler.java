@@ -0,0 +1,213 @@
+package com.sovdee.skriptparticles.shapes;
+
+import com.sovdee.skriptparticles.SkriptParticle;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs all repeating draw work from a single asynchronous timer, instead of one scheduler task per draw.
+ * Every tick, each due job is handed to a pool of worker threads, so many draws are spread over several cores.
+ * Jobs are handed out highest priority first, so they start sooner when every worker is busy, but they then run
+ * concurrently: the particle budget keeps room for high priority shapes through its per-priority shares, not through
+ * the order jobs run in. Alternatively, each run can get its own
+ * virtual thread, so thousands of long-running jobs never tie up or grow a pool of platform threads.
+ * The registry of active jobs can be listed, and jobs can be cancelled individually or all at once.
+ * Stopping the scheduler cancels every job and waits briefly for runs in progress to finish.
+ */
+public class RenderScheduler {
+
+    private static final RenderScheduler INSTANCE = new RenderScheduler();
+
+    private static final Comparator<RenderJob> BY_PRIORITY = Comparator.comparing(RenderJob::getPriority).reversed();
+
+    // how long stopping waits for runs in progress, a few ticks
+    private static final long STOP_TIMEOUT_MILLIS = 200;
+
+    // sorted by id, so jobs run in the order they were submitted
+    private final Map<Long, RenderJob> jobs = new ConcurrentSkipListMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private volatile long tick;
+    private @Nullable BukkitTask task;
+    private volatile @Nullable ExecutorService workers;
+
+    public static RenderScheduler get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts running jobs every tick.
+     *
+     * @param plugin the plugin to run the timer for
+     * @param virtualThreads whether to run each job on a new virtual thread, rather than a fixed pool of workers
+     * @param workers the number of worker threads, or 0 or less for one per available core. Unused with virtual threads.
+     */
+    public void start(Plugin plugin, boolean virtualThreads, int workers) {
+        if (task != null)
+            return;
+        if (virtualThreads) {
+            this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("skript-particle render job #", 1).factory());
+        } else {
+            if (workers <= 0)
+                workers = Runtime.getRuntime().availableProcessors();
+            this.workers = Executors.newFixedThreadPool(workers, new WorkerFactory());
+        }
+        task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::tick, 0, 1);
+    }
+
+    /**
+     * Stops the timer, cancels every job, and stops the workers, waiting briefly for runs in progress to finish
+     * so that none outlive the plugin.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        // cancelled first, so runs in progress stop at their next check instead of being rescheduled
+        cancelAll();
+        @Nullable ExecutorService workers = this.workers;
+        if (workers == null)
+            return;
+        this.workers = null;
+        workers.shutdownNow();
+        try {
+            if (!workers.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                SkriptParticle.warning("Some draw jobs were still running after the render scheduler stopped.");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Submits work to run on the next tick and then every period ticks, until it returns false.
+     *
+     * @param description a description of the work, shown when listing jobs
+     * @param priority the priority of the shapes being drawn
+     * @param period the number of ticks between runs
+     * @param step the work, returning false once finished
+     * @return the job
+     */
+    public RenderJob submit(String description, DrawPriority priority, long period, BooleanSupplier step) {
+        RenderJob job = new RenderJob(ids.incrementAndGet(), description, priority, period, tick + 1, step);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    /**
+     * Submits work to run a fixed number of times, on the next tick and then every period ticks.
+     *
+     * @param description a description of the work, shown when listing jobs
+     * @param priority the priority of the shapes being drawn
+     * @param period the number of ticks between runs
+     * @param runs the number of times to run the work
+     * @param work the work
+     * @return the job
+     */
+    public RenderJob submit(String description, DrawPriority priority, long period, long runs, Runnable work) {
+        AtomicLong remaining = new AtomicLong(runs);
+        return submit(description, priority, period, () -> {
+            work.run();
+            return remaining.decrementAndGet() > 0;
+        });
+    }
+
+    /**
+     * @return a snapshot of the active jobs, in the order they were submitted
+     */
+    public List<RenderJob> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    @Nullable
+    public RenderJob getJob(long id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Cancels the job with the given id.
+     *
+     * @return true if there was such a job
+     */
+    public boolean cancel(long id) {
+        @Nullable RenderJob job = jobs.remove(id);
+        if (job == null)
+            return false;
+        job.cancel();
+        return true;
+    }
+
+    public void cancelAll() {
+        for (RenderJob job : jobs.values())
+            job.cancel();
+        jobs.clear();
+    }
+
+    private void tick() {
+        long tick = ++this.tick;
+        @Nullable ExecutorService workers = this.workers;
+        if (workers == null)
+            return;
+        // a stable sort, so jobs of the same priority are handed out in submission order
+        List<RenderJob> due = getJobs();
+        due.sort(BY_PRIORITY);
+        for (RenderJob job : due) {
+            if (job.isCancelled()) {
+                jobs.remove(job.getId());
+            } else if (job.claim(tick)) {
+                try {
+                    workers.execute(() -> run(job));
+                } catch (RejectedExecutionException exception) {
+                    // the scheduler was stopped during this tick
+                    return;
+                }
+            }
+        }
+    }
+
+    private void run(RenderJob job) {
+        boolean running;
+        try {
+            running = job.run();
+        } catch (RuntimeException exception) {
+            // one failing job shouldn't stop the others, or keep failing every tick
+            SkriptParticle.severe("Draw job " + job + " failed and was cancelled: " + exception.getMessage());
+            exception.printStackTrace();
+            running = false;
+        }
+        if (!running) {
+            job.cancel();
+            jobs.remove(job.getId());
+        }
+    }
+
+    /**
+     * Names worker threads, and makes them daemons so they never keep the server from shutting down.
+     */
+    private static final class WorkerFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "skript-particle render worker #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
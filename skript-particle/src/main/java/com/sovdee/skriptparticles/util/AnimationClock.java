@@ -0,0 +1,28 @@
+package com.sovdee.skriptparticles.util;
+
+/**
+ * Measures how much time has really passed between the runs of an animation.
+ * <p>
+ * Under load, the server and its timers fall behind, so runs that should be one tick apart may be several ticks
+ * apart. Planning each run's slice from the measured time keeps an animation on schedule rather than stretching it
+ * out by however far the server lags behind.
+ */
+public class AnimationClock {
+
+    // the length of a tick when the server keeps up
+    public static final double TICK_MILLIS = 50;
+
+    private long lastNanos = -1;
+
+    /**
+     * Measures the time since the previous call. The first call counts as one tick, as the animation has only just started.
+     *
+     * @return the milliseconds since the previous call
+     */
+    public double elapsed() {
+        long now = System.nanoTime();
+        double elapsed = lastNanos < 0 ? TICK_MILLIS : (now - lastNanos) / 1_000_000.0;
+        lastNanos = now;
+        return elapsed;
+    }
+}
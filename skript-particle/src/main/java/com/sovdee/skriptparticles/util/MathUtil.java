@@ -2,11 +2,7 @@ package com.sovdee.skriptparticles.util;
 
 import org.bukkit.util.Vector;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Set;
 
 public class MathUtil {
@@ -28,20 +24,4 @@ public class MathUtil {
         }
         return points;
     }
-
-    public static List<List<Vector>> batch(Collection<Vector> toDraw, double millisecondsPerPoint) {
-        List<List<Vector>> batches = new ArrayList<>();
-        double totalDuration = 0;
-        Iterator<Vector> pointsIterator = toDraw.iterator();
-        while (pointsIterator.hasNext()) {
-            List<Vector> batch = new ArrayList<>();
-            while (totalDuration < 50 && pointsIterator.hasNext()) {
-                totalDuration += millisecondsPerPoint;
-                batch.add(pointsIterator.next());
-            }
-            totalDuration -= 50;
-            batches.add(batch);
-        }
-        return batches;
-    }
 }
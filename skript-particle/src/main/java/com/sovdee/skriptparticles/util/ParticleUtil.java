@@ -15,9 +15,10 @@ import java.util.Set;
  * Thanks to ShaneBee at SkBee for the original code.
  */
 public class ParticleUtil {
-    private static final ParticleBuilder Y_AXIS = new ParticleBuilder(Particle.DUST).data(new DustOptions(DyeColor.LIME.getColor(), 0.5f));
-    private static final ParticleBuilder X_AXIS = new ParticleBuilder(Particle.DUST).data(new DustOptions(DyeColor.RED.getColor(), 0.5f));
-    private static final ParticleBuilder Z_AXIS = new ParticleBuilder(Particle.DUST).data(new DustOptions(DyeColor.BLUE.getColor(), 0.5f));
+    // builders are made per call from these, since axes can be drawn from several render workers at once
+    private static final DustOptions Y_AXIS = new DustOptions(DyeColor.LIME.getColor(), 0.5f);
+    private static final DustOptions X_AXIS = new DustOptions(DyeColor.RED.getColor(), 0.5f);
+    private static final DustOptions Z_AXIS = new DustOptions(DyeColor.BLUE.getColor(), 0.5f);
 
     public static com.sovdee.skriptparticles.particles.Particle getDefaultParticle() {
         return (com.sovdee.skriptparticles.particles.Particle) new com.sovdee.skriptparticles.particles.Particle(Particle.FLAME).count(1).extra(0);
@@ -32,20 +33,20 @@ public class ParticleUtil {
         xAxis = orientation.transform(xAxis);
         zAxis = orientation.transform(zAxis);
 
-        Y_AXIS.receivers(recipients);
-        X_AXIS.receivers(recipients);
-        Z_AXIS.receivers(recipients);
+        ParticleBuilder yBuilder = new ParticleBuilder(Particle.DUST).data(Y_AXIS).receivers(recipients);
+        ParticleBuilder xBuilder = new ParticleBuilder(Particle.DUST).data(X_AXIS).receivers(recipients);
+        ParticleBuilder zBuilder = new ParticleBuilder(Particle.DUST).data(Z_AXIS).receivers(recipients);
 
         for (Vector vector : yAxis) {
-            Y_AXIS.location(location.clone().add(vector)).spawn();
+            yBuilder.location(location.clone().add(vector)).spawn();
         }
 
         for (Vector vector : xAxis) {
-            X_AXIS.location(location.clone().add(vector)).spawn();
+            xBuilder.location(location.clone().add(vector)).spawn();
         }
 
         for (Vector vector : zAxis) {
-            Z_AXIS.location(location.clone().add(vector)).spawn();
+            zBuilder.location(location.clone().add(vector)).spawn();
         }
     }
 }
@@ -0,0 +1,208 @@
+package com.sovdee.skriptparticles.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDismountEvent;
+import org.bukkit.event.entity.EntityMountEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of which chunk each online player is in, per world.
+ * Finding the players near a location only looks at the chunks around it, rather than every online player.
+ * Kept up to date from join, quit, move, teleport, respawn and world change events, and safe to query from any thread.
+ * Players riding a vehicle don't fire move events, so they are moved along with their vehicle instead.
+ */
+public class PlayerIndex implements Listener {
+
+    private static final PlayerIndex INSTANCE = new PlayerIndex();
+
+    // world -> chunk key -> players in that chunk
+    private final Map<UUID, Map<Long, Set<Player>>> worlds = new ConcurrentHashMap<>();
+    private final Map<Player, Cell> cells = new ConcurrentHashMap<>();
+
+    private record Cell(UUID world, long chunk) {}
+
+    public static PlayerIndex get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts tracking players, including those already online.
+     */
+    public void start(Plugin plugin) {
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        for (Player player : Bukkit.getOnlinePlayers())
+            update(player, player.getLocation());
+    }
+
+    /**
+     * Stops tracking players and forgets all of them.
+     */
+    public void stop() {
+        HandlerList.unregisterAll(this);
+        worlds.clear();
+        cells.clear();
+    }
+
+    /**
+     * Gets the players in the chunks overlapping a sphere.
+     * Players are only placed by chunk, so some may be slightly outside the sphere.
+     *
+     * @param world the world to search
+     * @param x the x coordinate of the center
+     * @param y the y coordinate of the center, unused since chunks span the whole height of the world
+     * @param z the z coordinate of the center
+     * @param radius the radius of the sphere
+     * @return a new list of the players found
+     */
+    public List<Player> getPlayersNear(World world, double x, double y, double z, double radius) {
+        List<Player> players = new ArrayList<>();
+        @Nullable Map<Long, Set<Player>> chunks = worlds.get(world.getUID());
+        if (chunks == null)
+            return players;
+        int minX = (int) Math.floor(x - radius) >> 4, maxX = (int) Math.floor(x + radius) >> 4;
+        int minZ = (int) Math.floor(z - radius) >> 4, maxZ = (int) Math.floor(z + radius) >> 4;
+        // with few occupied chunks, checking each of them is cheaper than looking up every chunk in range
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > chunks.size()) {
+            for (Map.Entry<Long, Set<Player>> entry : chunks.entrySet()) {
+                int chunkX = (int) (entry.getKey() >> 32), chunkZ = (int) (long) entry.getKey();
+                if (chunkX >= minX && chunkX <= maxX && chunkZ >= minZ && chunkZ <= maxZ)
+                    players.addAll(entry.getValue());
+            }
+        } else {
+            for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+                for (int chunkZ = minZ; chunkZ <= maxZ; chunkZ++) {
+                    @Nullable Set<Player> chunk = chunks.get(key(chunkX, chunkZ));
+                    if (chunk != null)
+                        players.addAll(chunk);
+                }
+            }
+        }
+        return players;
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Moves a player to the chunk of a location, if they aren't in it already.
+     * Only called from the main thread, so updates never race each other.
+     */
+    private void update(Player player, Location location) {
+        @Nullable World world = location.getWorld();
+        if (world == null)
+            return;
+        Cell cell = new Cell(world.getUID(), key(location.getBlockX() >> 4, location.getBlockZ() >> 4));
+        @Nullable Cell previous = cells.put(player, cell);
+        if (cell.equals(previous))
+            return;
+        if (previous != null)
+            removeFromChunk(player, previous);
+        worlds.computeIfAbsent(cell.world(), uuid -> new ConcurrentHashMap<>())
+                .computeIfAbsent(cell.chunk(), chunk -> ConcurrentHashMap.newKeySet())
+                .add(player);
+    }
+
+    private void remove(Player player) {
+        @Nullable Cell previous = cells.remove(player);
+        if (previous != null)
+            removeFromChunk(player, previous);
+    }
+
+    private void removeFromChunk(Player player, Cell cell) {
+        @Nullable Map<Long, Set<Player>> chunks = worlds.get(cell.world());
+        if (chunks == null)
+            return;
+        @Nullable Set<Player> chunk = chunks.get(cell.chunk());
+        if (chunk == null)
+            return;
+        chunk.remove(player);
+        if (chunk.isEmpty())
+            chunks.remove(cell.chunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        remove(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        Location from = event.getFrom(), to = event.getTo();
+        // most moves stay within a chunk
+        if (from.getWorld() == to.getWorld() && from.getBlockX() >> 4 == to.getBlockX() >> 4 && from.getBlockZ() >> 4 == to.getBlockZ() >> 4)
+            return;
+        update(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        update(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
+        update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        Location from = event.getFrom(), to = event.getTo();
+        if (from.getBlockX() >> 4 == to.getBlockX() >> 4 && from.getBlockZ() >> 4 == to.getBlockZ() >> 4)
+            return;
+        updatePassengers(event.getVehicle(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMount(EntityMountEvent event) {
+        updatePassengers(event.getEntity(), event.getMount().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDismount(EntityDismountEvent event) {
+        updatePassengers(event.getEntity(), event.getEntity().getLocation());
+    }
+
+    /**
+     * Moves a player, or every player riding an entity, including on top of other passengers, to the chunk of a location.
+     */
+    private void updatePassengers(Entity entity, Location location) {
+        if (entity instanceof Player player)
+            update(player, location);
+        for (Entity passenger : entity.getPassengers())
+            updatePassengers(passenger, location);
+    }
+}